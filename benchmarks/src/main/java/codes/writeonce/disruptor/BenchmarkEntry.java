@@ -0,0 +1,6 @@
+package codes.writeonce.disruptor;
+
+final class BenchmarkEntry {
+
+    long value;
+}
@@ -0,0 +1,98 @@
+package codes.writeonce.disruptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code codes.writeonce.utils.Main} diamond: main -> service/persister -> three connectors, with the main stage
+ * gated on the persister and the connectors. The benchmark thread plays the main stage.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DiamondBenchmark {
+
+    private static final int CAPACITY_BITS = 14;
+
+    @Param({"park", "spinPark", "busySpin"})
+    public String waitStrategy;
+
+    private Disruptor disruptor;
+
+    private ProcessorProducer producer;
+
+    @Setup
+    public void setup() {
+
+        disruptor = new Disruptor();
+
+        final var consumerWaitStrategy = WaitStrategies.forName(waitStrategy);
+
+        final var ringBuffer = disruptor.newRingBuffer(CAPACITY_BITS, BenchmarkEntry::new);
+
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var barrier3 = ringBuffer.newBarrier(0);
+        final var barrier4 = ringBuffer.newBarrier(0);
+        final var barrier5 = ringBuffer.newBarrier(0);
+        final var barrier6 = ringBuffer.newBarrier(0);
+
+        final var thread2 = disruptor.newThread(r -> new Thread(r, "bench.service"));
+        final var thread3 = disruptor.newThread(r -> new Thread(r, "bench.eventPersister"));
+        final var thread4 = disruptor.newThread(r -> new Thread(r, "bench.clientConnector"));
+        final var thread5 = disruptor.newThread(r -> new Thread(r, "bench.exchangeConnectors"));
+        final var thread6 = disruptor.newThread(r -> new Thread(r, "bench.miscConnectors"));
+
+        producer = new ProcessorProducer(ringBuffer, barrier1, barrier3, barrier4, barrier5, barrier6);
+
+        final var processor2 = ringBuffer.newProcessor(thread2, consumerWaitStrategy, barrier2, barrier1);
+        final var processor3 = ringBuffer.newProcessor(thread3, consumerWaitStrategy, barrier3, barrier1);
+        final var processor4 = ringBuffer.newProcessor(thread4, consumerWaitStrategy, barrier4, barrier2);
+        final var processor5 = ringBuffer.newProcessor(thread5, consumerWaitStrategy, barrier5, barrier2);
+        final var processor6 = ringBuffer.newProcessor(thread6, consumerWaitStrategy, barrier6, barrier2);
+
+        disruptor.addWorker(thread2, new StageWorker(disruptor, ringBuffer, processor2));
+        disruptor.addWorker(thread3, new StageWorker(disruptor, ringBuffer, processor3));
+        disruptor.addWorker(thread4, new StageWorker(disruptor, ringBuffer, processor4));
+        disruptor.addWorker(thread5, new StageWorker(disruptor, ringBuffer, processor5));
+        disruptor.addWorker(thread6, new StageWorker(disruptor, ringBuffer, processor6));
+
+        disruptor.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        disruptor.terminate();
+        disruptor.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput() {
+        producer.publish();
+    }
+
+    /**
+     * Time from publishing on the main stage until the slowest connector has handed the entry back.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void hopLatency() {
+        producer.publishAndAwait();
+    }
+}
@@ -0,0 +1,74 @@
+package codes.writeonce.disruptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two threads each writing its own one of two neighbouring ring buffer entries, as a producer and a consumer do. Laid
+ * out back to back the entries share a cache line, which then ping-pongs between the cores on every write; as
+ * {@link PaddedDisruptorEntry} they do not.
+ */
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FalseSharingBenchmark {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(DisruptorEntry.class, "incomingNanos", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"false", "true"})
+    public boolean padded;
+
+    private DisruptorEntry<Object> entry0;
+
+    private DisruptorEntry<Object> entry1;
+
+    @Setup
+    public void setup() {
+        final var slots = new Slots(Set.of());
+        final var ringBuffer = new Disruptor().<DisruptorEntry<Object>>newRingBuffer(4,
+                padded ? () -> new PaddedDisruptorEntry<>(slots) : () -> new DisruptorEntry<>(slots));
+        entry0 = ringBuffer.get(0);
+        entry1 = ringBuffer.get(1);
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    public void producer() {
+        VALUE.setRelease(entry0, (long) VALUE.getOpaque(entry0) + 1);
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    public void consumer() {
+        VALUE.setRelease(entry1, (long) VALUE.getOpaque(entry1) + 1);
+    }
+}
@@ -0,0 +1,133 @@
+package codes.writeonce.disruptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N producers -> {@link MultiProcessor} -> {@link PostMultiProcessor}, i.e. the {@code queue2} ingress of the main
+ * worker. Every benchmark thread is a producer; override the count with {@code -t}.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MultiProcessorBenchmark {
+
+    private static final int CAPACITY_BITS = 14;
+
+    private static final Object EVENT = new Object();
+
+    private static final int BATCH_SIZE = 32;
+
+    private static final Object[] BATCH = new Object[BATCH_SIZE];
+
+    static {
+        Arrays.fill(BATCH, EVENT);
+    }
+
+    @Param({"park", "spinPark", "busySpin"})
+    public String waitStrategy;
+
+    private Disruptor disruptor;
+
+    private RingBuffer<EventHolder<Object>> ringBuffer;
+
+    private MultiProcessor producer;
+
+    private Barrier consumerBarrier;
+
+    private Sender<Object> sender;
+
+    @Setup
+    public void setup() {
+
+        disruptor = new Disruptor();
+
+        final var slots = new Slots(Set.of());
+
+        ringBuffer = disruptor.newRingBuffer(CAPACITY_BITS, () -> new EventHolder<>(slots));
+
+        final var producerBarrier = ringBuffer.newMultiBarrier(0);
+        consumerBarrier = ringBuffer.newBarrier(0);
+
+        final var consumerThread = disruptor.newThread(r -> new Thread(r, "bench.consumer"));
+
+        producer = ringBuffer.newMultiProcessor(producerBarrier, consumerBarrier);
+        sender = new Sender<>(disruptor, producer, ringBuffer);
+
+        disruptor.addWorker(consumerThread, new PostStageWorker(disruptor, ringBuffer,
+                ringBuffer.newPostMultiProcessor(consumerThread, WaitStrategies.forName(waitStrategy), consumerBarrier,
+                        producerBarrier)));
+
+        disruptor.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        disruptor.terminate();
+        disruptor.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput() {
+        sender.send(0, EVENT);
+    }
+
+    /**
+     * Same as {@link #throughput()}, but claims and publishes {@value #BATCH_SIZE} events at once.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batchThroughput() {
+        sender.send(0, BATCH);
+    }
+
+    /**
+     * Time from claiming a slot until the consumer has handed it back.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void hopLatency() {
+
+        long sequence;
+        while (true) {
+            try {
+                sequence = producer.claim(1);
+                break;
+            } catch (InsufficientCapacityException ignore) {
+                Thread.onSpinWait();
+            }
+        }
+
+        final var holder = ringBuffer.get(sequence);
+        holder.incomingNanos = sequence;
+        holder.event = EVENT;
+        producer.publish(sequence);
+
+        while (consumerBarrier.sequence.get() <= sequence) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package codes.writeonce.disruptor;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer side of {@link MultiProcessorBenchmark}: the benchmark thread is the {@link PostMultiProcessor} consumer
+ * while {@code producers} background threads keep the ring full, so the cost measured is the highest-published-sequence
+ * scan under contention. {@code events} reports consumed events/s.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PostMultiProcessorClaimBenchmark {
+
+    private static final int CAPACITY_BITS = 14;
+
+    private static final Object EVENT = new Object();
+
+    @Param({"4", "8", "16"})
+    public int producers;
+
+    private Disruptor disruptor;
+
+    private RingBuffer<EventHolder<Object>> ringBuffer;
+
+    private PostMultiProcessor consumer;
+
+    private long sequence;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long events;
+    }
+
+    @Setup
+    public void setup() {
+
+        disruptor = new Disruptor();
+
+        final var slots = new Slots(Set.of());
+
+        ringBuffer = disruptor.newRingBuffer(CAPACITY_BITS, () -> new EventHolder<>(slots));
+
+        final var producerBarrier = ringBuffer.newMultiBarrier(0);
+        final var consumerBarrier = ringBuffer.newBarrier(0);
+
+        final var producer = ringBuffer.newMultiProcessor(producerBarrier, consumerBarrier);
+
+        for (int i = 0; i < producers; i++) {
+            final var name = "bench.producer" + i;
+            disruptor.addWorker(disruptor.newThread(r -> new Thread(r, name)), () -> {
+                while (!disruptor.isTerminate()) {
+                    final long s;
+                    try {
+                        s = producer.claim(1);
+                    } catch (InsufficientCapacityException ignore) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    final var holder = ringBuffer.get(s);
+                    holder.incomingNanos = s;
+                    holder.event = EVENT;
+                    producer.publish(s);
+                }
+            });
+        }
+
+        consumer = new PostMultiProcessor(consumerBarrier, producerBarrier, Thread.currentThread(),
+                BusySpinWaitStrategy.INSTANCE);
+        sequence = 0;
+
+        disruptor.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        disruptor.terminate();
+        disruptor.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int claim(Counters counters) {
+
+        final var n = consumer.claim();
+        if (n != 0) {
+            sequence += n;
+            consumer.publish(sequence);
+            counters.events += n;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,57 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Single consumer draining a multi-producer ring, the way {@link AbstractMainWorker} drains {@code queue2}.
+ */
+final class PostStageWorker implements Worker {
+
+    @Nonnull
+    private final Disruptor disruptor;
+
+    @Nonnull
+    private final RingBuffer<EventHolder<Object>> ringBuffer;
+
+    @Nonnull
+    private final PostMultiProcessor processor;
+
+    @SuppressWarnings("unused")
+    private long checksum;
+
+    PostStageWorker(
+            @Nonnull Disruptor disruptor,
+            @Nonnull RingBuffer<EventHolder<Object>> ringBuffer,
+            @Nonnull PostMultiProcessor processor
+    ) {
+        this.disruptor = disruptor;
+        this.ringBuffer = ringBuffer;
+        this.processor = processor;
+    }
+
+    @Override
+    public void run() {
+
+        long sequence = 0;
+        long checksum = 0;
+
+        while (true) {
+            var n = processor.claimBlocking();
+            if (disruptor.isTerminate()) {
+                break;
+            }
+            if (n == 0) {
+                processor.idle();
+            } else {
+                do {
+                    final var holder = ringBuffer.get(sequence++);
+                    checksum += holder.incomingNanos;
+                    holder.clean();
+                } while (--n != 0);
+                processor.publish(sequence);
+            }
+        }
+
+        this.checksum = checksum;
+    }
+}
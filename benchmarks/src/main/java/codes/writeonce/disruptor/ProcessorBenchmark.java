@@ -0,0 +1,77 @@
+package codes.writeonce.disruptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1P -> 1C over {@link Processor}: the benchmark thread publishes, one {@link DisruptorThread} consumes.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProcessorBenchmark {
+
+    private static final int CAPACITY_BITS = 14;
+
+    @Param({"park", "spinPark", "busySpin"})
+    public String waitStrategy;
+
+    private Disruptor disruptor;
+
+    private ProcessorProducer producer;
+
+    @Setup
+    public void setup() {
+
+        disruptor = new Disruptor();
+
+        final var consumerWaitStrategy = WaitStrategies.forName(waitStrategy);
+
+        final var ringBuffer = disruptor.newRingBuffer(CAPACITY_BITS, BenchmarkEntry::new);
+
+        final var producerBarrier = ringBuffer.newBarrier(0);
+        final var consumerBarrier = ringBuffer.newBarrier(0);
+
+        final var consumerThread = disruptor.newThread(r -> new Thread(r, "bench.consumer"));
+
+        producer = new ProcessorProducer(ringBuffer, producerBarrier, consumerBarrier);
+
+        disruptor.addWorker(consumerThread, new StageWorker(disruptor, ringBuffer,
+                ringBuffer.newProcessor(consumerThread, consumerWaitStrategy, consumerBarrier, producerBarrier)));
+
+        disruptor.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        disruptor.terminate();
+        disruptor.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput() {
+        producer.publish();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void hopLatency() {
+        producer.publishAndAwait();
+    }
+}
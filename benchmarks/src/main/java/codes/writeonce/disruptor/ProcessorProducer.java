@@ -0,0 +1,62 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Head of a {@link Processor} pipeline driven by the benchmark thread. It tracks free capacity the same way
+ * {@link AbstractMainWorker} does: the gating barriers hand back consumed entries through {@link Processor#claim()}.
+ */
+final class ProcessorProducer {
+
+    @Nonnull
+    private final RingBuffer<BenchmarkEntry> ringBuffer;
+
+    @Nonnull
+    private final Processor processor;
+
+    private final int capacity;
+
+    private long sequence;
+
+    private int available;
+
+    ProcessorProducer(@Nonnull RingBuffer<BenchmarkEntry> ringBuffer, @Nonnull Barrier publisherBarrier,
+            @Nonnull Barrier... barriers) {
+        this.ringBuffer = ringBuffer;
+        this.processor = new Processor(publisherBarrier, barriers, Thread.currentThread(),
+                BusySpinWaitStrategy.INSTANCE);
+        this.capacity = ringBuffer.capacity();
+        this.available = capacity;
+    }
+
+    public void publish() {
+
+        while (available == 0) {
+            available = processor.claim();
+            if (available == 0) {
+                Thread.onSpinWait();
+            }
+        }
+
+        available--;
+        ringBuffer.get(sequence).value = sequence;
+        processor.publish(++sequence);
+    }
+
+    /**
+     * Publishes one entry and spins until every gating stage has processed it.
+     */
+    public void publishAndAwait() {
+
+        publish();
+
+        while (available != capacity) {
+            final var n = processor.claim();
+            if (n == 0) {
+                Thread.onSpinWait();
+            } else {
+                available += n;
+            }
+        }
+    }
+}
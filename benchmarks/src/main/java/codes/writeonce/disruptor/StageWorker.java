@@ -0,0 +1,55 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Pipeline stage that reads every claimed entry and hands it over downstream, the same way the real stages do.
+ */
+final class StageWorker implements Worker {
+
+    @Nonnull
+    private final Disruptor disruptor;
+
+    @Nonnull
+    private final RingBuffer<BenchmarkEntry> ringBuffer;
+
+    @Nonnull
+    private final Processor processor;
+
+    @SuppressWarnings("unused")
+    private long checksum;
+
+    StageWorker(
+            @Nonnull Disruptor disruptor,
+            @Nonnull RingBuffer<BenchmarkEntry> ringBuffer,
+            @Nonnull Processor processor
+    ) {
+        this.disruptor = disruptor;
+        this.ringBuffer = ringBuffer;
+        this.processor = processor;
+    }
+
+    @Override
+    public void run() {
+
+        long sequence = 0;
+        long checksum = 0;
+
+        while (true) {
+            var n = processor.claimBlocking();
+            if (disruptor.isTerminate()) {
+                break;
+            }
+            if (n == 0) {
+                processor.idle();
+            } else {
+                do {
+                    checksum += ringBuffer.get(sequence++).value;
+                } while (--n != 0);
+                processor.publish(sequence);
+            }
+        }
+
+        this.checksum = checksum;
+    }
+}
@@ -0,0 +1,22 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+final class WaitStrategies {
+
+    private WaitStrategies() {
+        // empty
+    }
+
+    @Nonnull
+    static WaitStrategy forName(@Nonnull String name) {
+        return switch (name) {
+            case "park" -> ParkingWaitStrategy.INSTANCE;
+            case "spinPark" -> new SpinParkWaitStrategy(10_000);
+            case "yield" -> new YieldingWaitStrategy(100);
+            case "timedPark" -> new TimedParkWaitStrategy(50_000);
+            case "busySpin" -> BusySpinWaitStrategy.INSTANCE;
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package codes.writeonce.disruptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publish with nobody parked, as while all consumers are busy: {@link Barrier#publish(long)} from its one producer, and
+ * {@link MultiBarrier#publish(long, long)} from two producers publishing interleaved batches. With no parking consumer
+ * wired the sequence or the first flag is a release store; with one it is a volatile store followed by a read of the
+ * empty wait list.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WakeupBenchmark {
+
+    private static final int CAPACITY_BITS = 10;
+
+    private static final int PRODUCERS = 2;
+
+    private static final int BATCH = 4;
+
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    @Param({"false", "true"})
+    public boolean parking;
+
+    private Barrier barrier;
+
+    private MultiBarrier multiBarrier;
+
+    private long sequence;
+
+    @State(Scope.Thread)
+    public static class Producer {
+
+        long next;
+
+        @Setup
+        public void setup() {
+            next = (long) (THREAD_INDEX.getAndIncrement() % PRODUCERS) * BATCH;
+        }
+    }
+
+    @Setup
+    public void setup() {
+
+        final var disruptor = new Disruptor();
+        final var capacity = 1 << CAPACITY_BITS;
+
+        barrier = new Barrier(0, disruptor);
+        barrier.parking = parking;
+        multiBarrier = new MultiBarrier(0, CAPACITY_BITS, capacity, capacity - 1, disruptor);
+        multiBarrier.parking = parking;
+        sequence = 0;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void barrierPublish() {
+        barrier.publish(++sequence);
+    }
+
+    @Benchmark
+    @Threads(PRODUCERS)
+    public void multiBarrierPublish(Producer producer) {
+        final var lo = producer.next;
+        multiBarrier.publish(lo, lo + BATCH - 1);
+        producer.next = lo + PRODUCERS * BATCH;
+    }
+}
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -14,6 +15,13 @@ import java.util.function.Supplier;
 
 public abstract class AbstractMainWorker<T> implements Worker {
 
+    /**
+     * Resolution of the timers set with {@link #schedule(long, Object)}.
+     */
+    public static final long TIMER_TICK_NANOS = 1_000_000;
+
+    public static final String SNAPSHOT_PART = "main";
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Nonnull
@@ -38,11 +46,34 @@ public abstract class AbstractMainWorker<T> implements Worker {
     private final PostMultiProcessor externalProcessor;
 
     @Nonnull
-    private final Supplier<T> timerEventFactory;
+    private final WaitStrategy waitStrategy;
 
     @Nonnull
+    private final Supplier<T> timerEventFactory;
+
+    @Nullable
     private final ConcurrentLinkedQueue<QueueSender.Wrapper<T>> queuedEvents;
 
+    @Nullable
+    private final EventQueue<T> eventQueue;
+
+    @Nullable
+    private final SpillBuffer<T> spillBuffer;
+
+    @Nonnull
+    private final TimingWheel<T> timingWheel;
+
+    @Nullable
+    private final EpochClock clock;
+
+    @Nullable
+    private final SnapshotStore snapshotStore;
+
+    /**
+     * Latest timestamp given in the epoch nanoseconds mode, used by the main thread only.
+     */
+    private long epochNanos;
+
     @Nullable
     private volatile Instant fireTime;
 
@@ -65,6 +96,24 @@ public abstract class AbstractMainWorker<T> implements Worker {
             @Nonnull Supplier<T> timerEventFactory,
             @Nonnull ConcurrentLinkedQueue<QueueSender.Wrapper<T>> queuedEvents
     ) {
+        this(disruptor, thread, slots, innerProcessor, externalProcessor, queue1, queue2, timerEventFactory,
+                new MainWorkerOptions<T>().setQueuedEvents(queuedEvents));
+    }
+
+    public AbstractMainWorker(
+            @Nonnull Disruptor disruptor,
+            @Nonnull DisruptorThread thread,
+            @Nonnull Slots slots,
+            @Nonnull Processor innerProcessor,
+            @Nonnull PostMultiProcessor externalProcessor,
+            @Nonnull RingBuffer<DisruptorEntry<T>> queue1,
+            @Nonnull RingBuffer<EventHolder<T>> queue2,
+            @Nonnull Supplier<T> timerEventFactory,
+            @Nonnull MainWorkerOptions<T> options
+    ) {
+        if ((options.queuedEvents == null) == (options.eventQueue == null)) {
+            throw new IllegalArgumentException("Exactly one of queued events and event queue expected");
+        }
         this.disruptor = disruptor;
         this.thread = thread.getThread();
         this.slots = slots;
@@ -72,8 +121,17 @@ public abstract class AbstractMainWorker<T> implements Worker {
         this.queue1 = queue1;
         this.queue2 = queue2;
         this.externalProcessor = externalProcessor;
+        this.waitStrategy = innerProcessor.getWaitStrategy();
+        if (waitStrategy.isParking() && !externalProcessor.getWaitStrategy().isParking()) {
+            throw new IllegalArgumentException();
+        }
         this.timerEventFactory = timerEventFactory;
-        this.queuedEvents = queuedEvents;
+        this.queuedEvents = options.queuedEvents;
+        this.eventQueue = options.eventQueue;
+        this.spillBuffer = options.spillBuffer;
+        this.timingWheel = new TimingWheel<>(this.thread, TIMER_TICK_NANOS, System.nanoTime());
+        this.clock = options.clock;
+        this.snapshotStore = options.snapshotStore;
     }
 
     private void shutdown() {
@@ -90,9 +148,12 @@ public abstract class AbstractMainWorker<T> implements Worker {
 
         var claim2 = -1;
 
+        var idleCount = 0;
+
         while (!disruptor.isTerminate()) {
 
             final var shutdown = this.shutdown;
+            var spilled = false;
 
             final var claim1 = processor.claimBlocking();
             if (claim1 != 0) {
@@ -134,6 +195,7 @@ public abstract class AbstractMainWorker<T> implements Worker {
 
             final long nanos;
             final boolean noQueuedEvents;
+            var timerNanos = Long.MAX_VALUE;
 
             if (available1 == 0) {
                 nanos = Long.MAX_VALUE;
@@ -141,44 +203,97 @@ public abstract class AbstractMainWorker<T> implements Worker {
             } else {
                 boolean timeUpdated = false;
 
-                final var event = queuedEvents.poll();
-                if (event == null) {
-                    noQueuedEvents = true;
+                if (eventQueue != null) {
+                    final var count = eventQueue.available(available1);
+                    if (count == 0) {
+                        noQueuedEvents = true;
+                    } else {
+                        noQueuedEvents = false;
+                        now = updateTime(now);
+                        timeUpdated = true;
+                        for (int i = 0; i < count; i++) {
+                            final var entry = queue1.get(publishSequence1++);
+                            setTimestamp(entry, now);
+                            entry.incomingNanos = eventQueue.getIncomingNanos(i);
+                            final var counter = eventQueue.getCounter(i);
+                            if (counter != null) {
+                                counter.decrementAndGet();
+                            }
+                            entry.event = eventQueue.getEvent(i);
+                            admit(entry);
+                        }
+                        eventQueue.remove(count);
+                        available1 -= count;
+                    }
                 } else {
-                    noQueuedEvents = false;
-                    final var incomingNanos = System.nanoTime();
-                    available1--;
-                    now = updateTime(now);
-                    timeUpdated = true;
-                    final var entry = queue1.get(publishSequence1++);
-                    entry.timestamp = now;
-                    entry.incomingNanos = incomingNanos;
-                    final var counter = event.counter();
-                    if (counter != null) {
-                        counter.decrementAndGet();
+                    assert queuedEvents != null;
+                    final var event = queuedEvents.poll();
+                    if (event == null) {
+                        noQueuedEvents = true;
+                    } else {
+                        noQueuedEvents = false;
+                        final var incomingNanos = System.nanoTime();
+                        available1--;
+                        now = updateTime(now);
+                        timeUpdated = true;
+                        final var entry = queue1.get(publishSequence1++);
+                        setTimestamp(entry, now);
+                        entry.incomingNanos = incomingNanos;
+                        final var counter = event.counter();
+                        if (counter != null) {
+                            counter.decrementAndGet();
+                        }
+                        entry.event = event.event();
+                        admit(entry);
+
+                        while (available1 != 0) {
+                            final var event2 = queuedEvents.poll();
+                            if (event2 == null) {
+                                break;
+                            }
+                            available1--;
+                            final var entry2 = queue1.get(publishSequence1++);
+                            setTimestamp(entry2, now);
+                            entry2.incomingNanos = incomingNanos;
+                            final var counter2 = event2.counter();
+                            if (counter2 != null) {
+                                counter2.decrementAndGet();
+                            }
+                            entry2.event = event2.event();
+                            admit(entry2);
+                        }
                     }
-                    entry.event = event.event();
-                    postprocess(entry);
+                }
 
+                if (spillBuffer != null) {
                     while (available1 != 0) {
-                        final var event2 = queuedEvents.poll();
-                        if (event2 == null) {
+                        final var holder = spillBuffer.peek(sequence2);
+                        if (holder == null) {
                             break;
                         }
-                        available1--;
-                        final var entry2 = queue1.get(publishSequence1++);
-                        entry2.timestamp = now;
-                        entry2.incomingNanos = incomingNanos;
-                        final var counter2 = event2.counter();
-                        if (counter2 != null) {
-                            counter2.decrementAndGet();
+                        if (!timeUpdated) {
+                            now = updateTime(now);
+                            timeUpdated = true;
                         }
-                        entry2.event = event2.event();
-                        postprocess(entry2);
+                        final var entry = queue1.get(publishSequence1++);
+                        setTimestamp(entry, now);
+                        entry.incomingNanos = holder.incomingNanos;
+                        entry.event = holder.event;
+                        final var slots = entry.slots;
+                        entry.slots = holder.slots;
+                        holder.slots = slots;
+                        holder.clean();
+                        spillBuffer.remove();
+                        admit(entry);
+                        available1--;
+                        spilled = true;
                     }
                 }
 
-                if (available1 != 0 &&
+                // queue2 entries up to the oldest spilled one:
+                var limit2 = spillBuffer == null ? Long.MAX_VALUE : spillBuffer.limit(sequence2);
+
+                if (available1 != 0 && limit2 != 0 &&
                     (available2 != 0 || (available2 = claim2 = externalProcessor.claimBlocking()) != 0)) {
 
                     if (!timeUpdated) {
@@ -188,19 +303,20 @@ public abstract class AbstractMainWorker<T> implements Worker {
                     {
                         final var holder = queue2.get(sequence2);
                         final var entry = queue1.get(publishSequence1++);
-                        entry.timestamp = now;
+                        setTimestamp(entry, now);
                         entry.incomingNanos = holder.incomingNanos;
                         entry.event = holder.event;
                         final var slots = entry.slots;
                         entry.slots = holder.slots;
                         holder.slots = slots;
                         holder.clean();
-                        postprocess(entry);
+                        admit(entry);
                         available1--;
                         available2--;
                         sequence2++;
+                        limit2--;
                     }
-                    while (available1 != 0) {
+                    while (available1 != 0 && limit2 != 0) {
                         if (available2 == 0) {
                             available2 = claim2 = externalProcessor.claimBlocking();
                             if (available2 == 0) {
@@ -209,33 +325,73 @@ public abstract class AbstractMainWorker<T> implements Worker {
                         }
                         final var holder = queue2.get(sequence2);
                         final var entry = queue1.get(publishSequence1++);
-                        entry.timestamp = now;
+                        setTimestamp(entry, now);
                         entry.incomingNanos = holder.incomingNanos;
                         entry.event = holder.event;
                         final var slots = entry.slots;
                         entry.slots = holder.slots;
                         holder.slots = slots;
                         holder.clean();
-                        postprocess(entry);
+                        admit(entry);
                         available1--;
                         available2--;
                         sequence2++;
+                        limit2--;
                     }
                     externalProcessor.publish(sequence2);
                 }
 
+                if (available1 != 0 && !timingWheel.isEmpty()) {
+                    final var nanoTime = System.nanoTime();
+                    timingWheel.advance(nanoTime);
+                    while (available1 != 0) {
+                        final var event = timingWheel.nextExpired();
+                        if (event == null) {
+                            break;
+                        }
+                        if (!timeUpdated) {
+                            now = updateTime(now);
+                            timeUpdated = true;
+                        }
+                        available1--;
+                        final var entry = queue1.get(publishSequence1++);
+                        setTimestamp(entry, now);
+                        entry.incomingNanos = nanoTime;
+                        entry.event = event;
+                        admit(entry);
+                    }
+                    timerNanos = timingWheel.nanosToNextExpiry(nanoTime);
+                }
+
                 if (available1 != 0 && !triggered) {
                     final var nowFireTime = fireTime;
                     if (nowFireTime != null) {
-                        if (timeUpdated) {
+                        if (clock != null) {
+                            final var fireNanos = toEpochNanos(nowFireTime);
+                            final var t = timeUpdated ? epochNanos : Math.max(epochNanos, clock.epochNanos());
+                            if (t >= fireNanos) {
+                                epochNanos = t;
+                                timeUpdated = true;
+                                triggered = true;
+                                available1--;
+                                final var entry = queue1.get(publishSequence1++);
+                                entry.timestampNanos = t;
+                                entry.incomingNanos = System.nanoTime();
+                                entry.event = timerEventFactory.get();
+                                admit(entry);
+                                nanos = Long.MAX_VALUE;
+                            } else {
+                                nanos = fireNanos - t;
+                            }
+                        } else if (timeUpdated) {
                             if (!now.isBefore(nowFireTime)) {
                                 triggered = true;
                                 available1--;
                                 final var entry = queue1.get(publishSequence1++);
-                                entry.timestamp = now;
+                                setTimestamp(entry, now);
                                 entry.incomingNanos = System.nanoTime();
                                 entry.event = timerEventFactory.get();
-                                postprocess(entry);
+                                admit(entry);
                                 nanos = Long.MAX_VALUE;
                             } else {
                                 nanos = getNanos(now, nowFireTime);
@@ -251,10 +407,10 @@ public abstract class AbstractMainWorker<T> implements Worker {
                                     triggered = true;
                                     available1--;
                                     final var entry = queue1.get(publishSequence1++);
-                                    entry.timestamp = now;
+                                    setTimestamp(entry, now);
                                     entry.incomingNanos = System.nanoTime();
                                     entry.event = timerEventFactory.get();
-                                    postprocess(entry);
+                                    admit(entry);
                                     nanos = Long.MAX_VALUE;
                                 } else {
                                     nanos = getNanos(justNow, nowFireTime);
@@ -265,10 +421,10 @@ public abstract class AbstractMainWorker<T> implements Worker {
                                     triggered = true;
                                     available1--;
                                     final var entry = queue1.get(publishSequence1++);
-                                    entry.timestamp = now;
+                                    setTimestamp(entry, now);
                                     entry.incomingNanos = System.nanoTime();
                                     entry.event = timerEventFactory.get();
-                                    postprocess(entry);
+                                    admit(entry);
                                     nanos = Long.MAX_VALUE;
                                 } else {
                                     nanos = getNanos(now, nowFireTime);
@@ -289,8 +445,10 @@ public abstract class AbstractMainWorker<T> implements Worker {
                 }
             }
 
-            if (noQueuedEvents && claim1 == 0 && claim2 == 0 && !disruptor.isTerminate()) {
-                LockSupport.parkNanos(nanos);
+            if (noQueuedEvents && !spilled && claim1 == 0 && claim2 == 0 && !disruptor.isTerminate()) {
+                waitStrategy.idle(++idleCount, Math.min(nanos, timerNanos));
+            } else {
+                idleCount = 0;
             }
 
             remainingCapacity1 = available1;
@@ -298,6 +456,64 @@ public abstract class AbstractMainWorker<T> implements Worker {
         }
     }
 
+    /**
+     * Publishes every record of the journal into {@code queue1} as a replayed entry, whole available capacity at a
+     * time, then continues with {@link #mainLoop} from where the replay left the ring. Nothing from {@code queue2} or
+     * the queued events is admitted before the replay completes.
+     */
+    protected void replayAndLoop(@Nonnull JournalReader<T> journal) throws IOException {
+
+        long claimSequence1 = 0;
+        long publishSequence1 = 0;
+        int available1 = queue1.capacity();
+        var now = Instant.now();
+        var idleCount = 0;
+
+        try (journal) {
+            var more = journal.next();
+            while (more && !disruptor.isTerminate()) {
+                if (available1 == 0) {
+                    var n = processor.claimBlocking();
+                    if (n == 0) {
+                        waitStrategy.idle(++idleCount, Long.MAX_VALUE);
+                        continue;
+                    }
+                    idleCount = 0;
+                    available1 += n;
+                    do {
+                        queue1.get(claimSequence1++).clean(slots);
+                    } while (--n != 0);
+                }
+                final var incomingNanos = System.nanoTime();
+                do {
+                    final var timestamp = journal.timestamp();
+                    final var entry = queue1.get(publishSequence1++);
+                    entry.replay = true;
+                    if (clock == null) {
+                        entry.timestamp = Instant.ofEpochSecond(0, timestamp);
+                        if (entry.timestamp.isAfter(now)) {
+                            now = entry.timestamp;
+                        }
+                    } else {
+                        entry.timestampNanos = timestamp;
+                        if (timestamp > epochNanos) {
+                            epochNanos = timestamp;
+                        }
+                    }
+                    entry.incomingNanos = incomingNanos;
+                    entry.event = journal.event();
+                    postprocess(entry);
+                    available1--;
+                    more = journal.next();
+                } while (more && available1 != 0);
+                processor.publish(publishSequence1);
+            }
+        }
+
+        logger.info("Replayed {} entries", publishSequence1);
+        mainLoop(claimSequence1, publishSequence1, available1, now);
+    }
+
     private long getNanos(@Nonnull Instant now, @Nonnull Instant fireTime) {
         try {
             return now.until(fireTime, ChronoUnit.NANOS);
@@ -306,9 +522,28 @@ public abstract class AbstractMainWorker<T> implements Worker {
         }
     }
 
+    private static long toEpochNanos(@Nonnull Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * In the epoch nanoseconds mode advances {@link #epochNanos} instead and returns {@code now} as is.
+     */
     @Nonnull
     private Instant updateTime(@Nonnull Instant now) {
 
+        if (clock != null) {
+            final var t = clock.epochNanos();
+            if (t > epochNanos) {
+                epochNanos = t;
+            }
+            return now;
+        }
+
         final var t = Instant.now();
         if (t.isAfter(now)) {
             return t;
@@ -316,6 +551,26 @@ public abstract class AbstractMainWorker<T> implements Worker {
         return now;
     }
 
+    private void setTimestamp(@Nonnull DisruptorEntry<T> entry, @Nonnull Instant now) {
+        if (clock == null) {
+            entry.timestamp = now;
+        } else {
+            entry.timestampNanos = epochNanos;
+        }
+    }
+
+    /**
+     * Publishes the event into {@code queue1} once the delay has passed, in a batch with the other timers due by then.
+     * Constant time, may be called from any thread. Scales to any number of timers, unlike {@link #setFireTime}.
+     *
+     * @param delayNanos delay, rounded up to {@link #TIMER_TICK_NANOS}
+     * @return handle to cancel the timer with
+     */
+    @Nonnull
+    public TimingWheel.Timer<T> schedule(long delayNanos, @Nonnull T event) {
+        return timingWheel.schedule(System.nanoTime() + Math.min(delayNanos, Long.MAX_VALUE >> 1), event);
+    }
+
     /**
      * Try to avoid excessive calling this method
      */
@@ -342,9 +597,41 @@ public abstract class AbstractMainWorker<T> implements Worker {
         return remainingCapacity2;
     }
 
+    /**
+     * Captures the state of the main worker as of a live {@link SnapshotEvent}: called on the main thread as the event
+     * is published into {@code queue1}, so the state reflects every entry published before it and none after, the
+     * ones the journal suffix following the snapshot holds. Has to save the {@link #SNAPSHOT_PART} part, or the
+     * snapshot never completes.
+     * <p>
+     * The {@link SnapshotWriter} runs later on the store thread, while this thread goes on changing the state, so it
+     * may only read what is captured here: a copy, or the current version of state kept copy-on-write. Saves an empty
+     * part by default, for a worker with no state of its own. Timers set with {@link #schedule(long, Object)} are not
+     * part of a snapshot.
+     */
+    protected void snapshot(@Nonnull SnapshotEvent event, @Nonnull SnapshotStore store) {
+        store.save(event.getId(), SNAPSHOT_PART, out -> {
+            // no state
+        });
+    }
+
+    /**
+     * Loads the state saved by {@link #snapshot(SnapshotEvent, SnapshotStore)}. Called on the main thread before
+     * anything is replayed or admitted.
+     */
+    protected void restore(@Nonnull Snapshot snapshot) throws IOException {
+        // empty
+    }
+
     protected void postprocess(@Nonnull DisruptorEntry<T> entry) {
         // empty
     }
 
+    private void admit(@Nonnull DisruptorEntry<T> entry) {
+        if (snapshotStore != null && entry.event instanceof final SnapshotEvent event) {
+            snapshot(event, snapshotStore);
+        }
+        postprocess(entry);
+    }
+
     protected abstract boolean isShutdownEvent(@Nonnull DisruptorEntry<T> entry);
 }
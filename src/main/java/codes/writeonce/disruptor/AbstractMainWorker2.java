@@ -33,6 +33,9 @@ public abstract class AbstractMainWorker2<T, E, X extends DisruptorEntry2<T>> im
     @Nonnull
     private final PostMultiProcessor externalProcessor;
 
+    @Nonnull
+    private final WaitStrategy waitStrategy;
+
     @Nonnull
     private final ConcurrentLinkedQueue<QueueSender.Wrapper<E>> queuedEvents;
 
@@ -62,6 +65,10 @@ public abstract class AbstractMainWorker2<T, E, X extends DisruptorEntry2<T>> im
         this.queue1 = queue1;
         this.queue2 = queue2;
         this.externalProcessor = externalProcessor;
+        this.waitStrategy = innerProcessor.getWaitStrategy();
+        if (waitStrategy.isParking() && !externalProcessor.getWaitStrategy().isParking()) {
+            throw new IllegalArgumentException();
+        }
         this.queuedEvents = queuedEvents;
     }
 
@@ -79,6 +86,8 @@ public abstract class AbstractMainWorker2<T, E, X extends DisruptorEntry2<T>> im
 
         var claim2 = -1;
 
+        var idleCount = 0;
+
         while (!disruptor.isTerminate()) {
 
             final var shutdown = this.shutdown;
@@ -266,7 +275,9 @@ public abstract class AbstractMainWorker2<T, E, X extends DisruptorEntry2<T>> im
             }
 
             if (noQueuedEvents && claim1 == 0 && claim2 == 0 && !disruptor.isTerminate()) {
-                LockSupport.parkNanos(nanos);
+                waitStrategy.idle(++idleCount, nanos);
+            } else {
+                idleCount = 0;
             }
 
             remainingCapacity1 = available1;
@@ -0,0 +1,109 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.stream.Stream;
+
+/**
+ * Sequencing shared by all ring buffer storages: barriers and processors only deal with sequences, the subclass
+ * decides how an entry for a sequence is stored.
+ */
+public abstract class AbstractRingBuffer {
+
+    @Nonnull
+    protected final Disruptor disruptor;
+
+    protected final int capacityBits;
+
+    protected final int capacity;
+
+    protected final int mask;
+
+    protected AbstractRingBuffer(@Nonnull Disruptor disruptor, int capacityBits) {
+
+        if (capacityBits < 0 || capacityBits > 30) {
+            throw new IllegalArgumentException("Capacity bits out of range: " + capacityBits);
+        }
+
+        this.capacity = 1 << capacityBits;
+        this.capacityBits = capacityBits;
+        this.disruptor = disruptor;
+        this.mask = capacity - 1;
+    }
+
+    @Nonnull
+    public Barrier newBarrier(long sequence) {
+        return new Barrier(sequence, disruptor);
+    }
+
+    @Nonnull
+    public MultiBarrier newMultiBarrier(long sequence) {
+        return new MultiBarrier(sequence, capacityBits, capacity, mask, disruptor);
+    }
+
+    @Nonnull
+    public Processor newProcessor(@Nonnull DisruptorThread thread, @Nonnull Barrier publisherBarrier,
+            @Nonnull Barrier... barriers) {
+        return new Processor(publisherBarrier, barriers, thread.getThread());
+    }
+
+    @Nonnull
+    public Processor newProcessor(@Nonnull DisruptorThread thread, @Nonnull WaitStrategy waitStrategy,
+            @Nonnull Barrier publisherBarrier, @Nonnull Barrier... barriers) {
+        return new Processor(publisherBarrier, barriers, thread.getThread(), waitStrategy);
+    }
+
+    /**
+     * Stage consumed by all of {@code threads}, each entry by one of them. Downstream stages gate on
+     * {@code publisherBarrier}.
+     */
+    @Nonnull
+    public WorkerPool newWorkerPool(@Nonnull DisruptorThread[] threads, @Nonnull Barrier publisherBarrier,
+            @Nonnull Barrier... barriers) {
+        return newWorkerPool(threads, ParkingWaitStrategy.INSTANCE, publisherBarrier, barriers);
+    }
+
+    @Nonnull
+    public WorkerPool newWorkerPool(@Nonnull DisruptorThread[] threads, @Nonnull WaitStrategy waitStrategy,
+            @Nonnull Barrier publisherBarrier, @Nonnull Barrier... barriers) {
+        return new WorkerPool(publisherBarrier, barriers,
+                Stream.of(threads).map(DisruptorThread::getThread).toArray(Thread[]::new), waitStrategy);
+    }
+
+    @Nonnull
+    public MultiProcessor newMultiProcessor(@Nonnull MultiBarrier publisherBarrier, @Nonnull Barrier... barriers) {
+        return new MultiProcessor(capacity, publisherBarrier, barriers);
+    }
+
+    /**
+     * Producer for a ring buffer written by one thread only. Consumers wait on {@code publisherBarrier} as on any
+     * other {@link Barrier}.
+     */
+    @Nonnull
+    public SingleProcessor newSingleProcessor(@Nonnull Barrier publisherBarrier, @Nonnull Barrier... barriers) {
+        return new SingleProcessor(capacity, publisherBarrier, barriers);
+    }
+
+    @Nonnull
+    public PostMultiProcessor newPostMultiProcessor(@Nonnull DisruptorThread thread, @Nonnull Barrier publisherBarrier,
+            @Nonnull MultiBarrier barrier) {
+        return new PostMultiProcessor(publisherBarrier, barrier, thread.getThread());
+    }
+
+    @Nonnull
+    public PostMultiProcessor newPostMultiProcessor(@Nonnull DisruptorThread thread,
+            @Nonnull WaitStrategy waitStrategy, @Nonnull Barrier publisherBarrier, @Nonnull MultiBarrier barrier) {
+        return new PostMultiProcessor(publisherBarrier, barrier, thread.getThread(), waitStrategy);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int capacityBits() {
+        return capacityBits;
+    }
+
+    public int mask() {
+        return mask;
+    }
+}
@@ -0,0 +1,33 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+final class ArraySlot<T> extends Slot<T> {
+
+    ArraySlot(@Nonnull SlotKey<T> key, int index) {
+        super(key, index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(@Nonnull SlotValues slots) {
+        return (T) ((ArraySlotValues) slots).values[index];
+    }
+
+    @Override
+    public void set(@Nonnull SlotValues slots, T value) {
+        ((ArraySlotValues) slots).values[index] = value;
+    }
+
+    @Override
+    public void init(@Nonnull SlotValues slots) {
+        ((ArraySlotValues) slots).values[index] = key.init();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clean(@Nonnull SlotValues slots) {
+        final var values = ((ArraySlotValues) slots).values;
+        values[index] = key.clean((T) values[index]);
+    }
+}
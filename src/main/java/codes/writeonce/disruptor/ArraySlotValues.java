@@ -0,0 +1,13 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+final class ArraySlotValues extends SlotValues {
+
+    @Nonnull
+    final Object[] values;
+
+    ArraySlotValues(int size) {
+        this.values = new Object[size];
+    }
+}
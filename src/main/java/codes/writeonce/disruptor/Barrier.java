@@ -11,9 +11,34 @@ public final class Barrier {
     @Nonnull
     final AtomicReference<WaitClient> waitListHead;
 
+    /**
+     * Set while wiring once a parking consumer waits on this barrier. Publishing skips the wake-up otherwise.
+     */
+    boolean parking;
+
     public Barrier(long sequence, @Nonnull Disruptor disruptor) {
         this.sequence = new Sequence(sequence);
         waitListHead = new AtomicReference<>();
         disruptor.addWaitList(waitListHead);
     }
+
+    /**
+     * Stores the sequence with release semantics, or as a volatile store followed by a wake-up if a parking consumer
+     * waits on this barrier: the store has to be ordered before the wait-list read then.
+     */
+    void publish(long sequence) {
+
+        if (parking) {
+            this.sequence.set(sequence);
+            WaitClient.wakeupAll(waitListHead);
+        } else {
+            this.sequence.setRelease(sequence);
+        }
+    }
+
+    void wakeup() {
+        if (parking) {
+            WaitClient.wakeupAll(waitListHead);
+        }
+    }
 }
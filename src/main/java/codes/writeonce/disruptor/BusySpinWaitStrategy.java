@@ -0,0 +1,23 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Burns a core, never parks. Publishers don't need to wake the consumer up.
+ */
+public final class BusySpinWaitStrategy implements WaitStrategy {
+
+    public static final BusySpinWaitStrategy INSTANCE = new BusySpinWaitStrategy();
+
+    private BusySpinWaitStrategy() {
+        // empty
+    }
+
+    @Override
+    public boolean isParking() {
+        return false;
+    }
+
+    @Override
+    public void idle(int idleCount, long nanos) {
+        Thread.onSpinWait();
+    }
+}
@@ -0,0 +1,54 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.BitSet;
+
+/**
+ * Hands out the CPUs of a list one at a time, for pinning each thread to a core of its own.
+ */
+public final class CoreList {
+
+    @Nonnull
+    private final BitSet cpus;
+
+    private int next;
+
+    public CoreList(@Nonnull BitSet cpus) {
+        this.cpus = (BitSet) cpus.clone();
+    }
+
+    public CoreList(@Nonnull String list) {
+        this(CpuAffinity.parse(list));
+    }
+
+    /**
+     * @return set of the next core of the list
+     * @throws IllegalStateException if every core has been handed out
+     */
+    @Nonnull
+    public BitSet next() {
+
+        final var cpu = cpus.nextSetBit(next);
+        if (cpu < 0) {
+            throw new IllegalStateException("No cores left in " + cpus);
+        }
+        next = cpu + 1;
+        final var set = new BitSet();
+        set.set(cpu);
+        return set;
+    }
+
+    /**
+     * @return whether {@link #next()} has a core to hand out
+     */
+    public boolean hasNext() {
+        return cpus.nextSetBit(next) >= 0;
+    }
+
+    /**
+     * @return number of cores {@link #next()} has yet to hand out
+     */
+    public int remaining() {
+        return next >= cpus.length() ? 0 : cpus.get(next, cpus.length()).cardinality();
+    }
+}
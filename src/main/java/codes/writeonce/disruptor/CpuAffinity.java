@@ -0,0 +1,159 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.BitSet;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * CPU affinity of the calling thread, on Linux through {@code sched_setaffinity(2)} and {@code sched_getaffinity(2)}
+ * called with the foreign function API. Elsewhere {@link #isSupported()} is {@code false}.
+ */
+public final class CpuAffinity {
+
+    /**
+     * Size of the glibc {@code cpu_set_t}.
+     */
+    private static final int MAX_CPUS = 1024;
+
+    private static final long MASK_SIZE = MAX_CPUS / Byte.SIZE;
+
+    private static final StructLayout CALL_STATE = Linker.Option.captureStateLayout();
+
+    private static final long ERRNO = CALL_STATE.byteOffset(MemoryLayout.PathElement.groupElement("errno"));
+
+    @Nullable
+    private static final MethodHandle SET_AFFINITY = downcall("sched_setaffinity");
+
+    @Nullable
+    private static final MethodHandle GET_AFFINITY = downcall("sched_getaffinity");
+
+    private CpuAffinity() {
+        // empty
+    }
+
+    public static boolean isSupported() {
+        return SET_AFFINITY != null && GET_AFFINITY != null;
+    }
+
+    /**
+     * Restricts the calling thread to the given CPUs.
+     *
+     * @throws IOException if the kernel refuses the set, e.g. none of the CPUs is online or allowed to the process
+     */
+    public static void set(@Nonnull BitSet cpus) throws IOException {
+
+        if (!isSupported()) {
+            throw new UnsupportedOperationException();
+        }
+        if (cpus.isEmpty() || cpus.length() > MAX_CPUS) {
+            throw new IllegalArgumentException();
+        }
+
+        try (var arena = Arena.ofConfined()) {
+            final var mask = arena.allocate(MASK_SIZE, Long.BYTES);
+            final var words = cpus.toLongArray();
+            for (int i = 0; i < words.length; i++) {
+                mask.setAtIndex(JAVA_LONG, i, words[i]);
+            }
+            final var state = arena.allocate(CALL_STATE);
+            final int result;
+            try {
+                result = (int) SET_AFFINITY.invokeExact(state, 0, MASK_SIZE, mask);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            if (result != 0) {
+                throw new IOException("sched_setaffinity failed with errno " + state.get(JAVA_INT, ERRNO));
+            }
+        }
+    }
+
+    /**
+     * @return CPUs the calling thread may run on
+     */
+    @Nonnull
+    public static BitSet get() throws IOException {
+
+        if (!isSupported()) {
+            throw new UnsupportedOperationException();
+        }
+
+        try (var arena = Arena.ofConfined()) {
+            final var mask = arena.allocate(MASK_SIZE, Long.BYTES);
+            final var state = arena.allocate(CALL_STATE);
+            final int result;
+            try {
+                result = (int) GET_AFFINITY.invokeExact(state, 0, MASK_SIZE, mask);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            if (result != 0) {
+                throw new IOException("sched_getaffinity failed with errno " + state.get(JAVA_INT, ERRNO));
+            }
+            return BitSet.valueOf(mask.toArray(JAVA_LONG));
+        }
+    }
+
+    /**
+     * Parses a CPU list in the {@code taskset --cpu-list} form, e.g. {@code 0,2,4-7}.
+     */
+    @Nonnull
+    public static BitSet parse(@Nonnull String list) {
+
+        final var cpus = new BitSet();
+        for (final var item : list.split(",")) {
+            final var range = item.trim();
+            if (range.isEmpty()) {
+                continue;
+            }
+            final var dash = range.indexOf('-');
+            final int from;
+            final int to;
+            try {
+                if (dash < 0) {
+                    from = Integer.parseInt(range);
+                    to = from;
+                } else {
+                    from = Integer.parseInt(range.substring(0, dash).trim());
+                    to = Integer.parseInt(range.substring(dash + 1).trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(e);
+            }
+            if (from < 0 || to < from || to >= MAX_CPUS) {
+                throw new IllegalArgumentException();
+            }
+            cpus.set(from, to + 1);
+        }
+        return cpus;
+    }
+
+    @Nullable
+    private static MethodHandle downcall(@Nonnull String name) {
+
+        if (!System.getProperty("os.name", "").startsWith("Linux")) {
+            return null;
+        }
+
+        final var linker = Linker.nativeLinker();
+        return linker.defaultLookup().find(name)
+                .map(address -> linker.downcallHandle(
+                        address,
+                        FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_LONG, ADDRESS),
+                        Linker.Option.captureCallState("errno")
+                ))
+                .orElse(null);
+    }
+}
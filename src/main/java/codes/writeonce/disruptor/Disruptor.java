@@ -5,16 +5,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class Disruptor implements AutoCloseable {
 
+    private static final long PLACEMENT_TIMEOUT_SECONDS = 10;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final ArrayList<AtomicReference<WaitClient>> waitLists = new ArrayList<>();
@@ -69,6 +75,33 @@ public class Disruptor implements AutoCloseable {
         return new RingBuffer<>(this, capacityBits, entryFactory);
     }
 
+    @Nonnull
+    public LongRingBuffer newLongRingBuffer(int capacityBits) {
+        if (starting.get()) {
+            throw new IllegalStateException();
+        }
+        return new LongRingBuffer(this, capacityBits);
+    }
+
+    @Nonnull
+    public LongPairRingBuffer newLongPairRingBuffer(int capacityBits) {
+        if (starting.get()) {
+            throw new IllegalStateException();
+        }
+        return new LongPairRingBuffer(this, capacityBits);
+    }
+
+    /**
+     * The memory is released once the ring buffer becomes unreachable.
+     */
+    @Nonnull
+    public SegmentRingBuffer newSegmentRingBuffer(int capacityBits, @Nonnull MemoryLayout entryLayout) {
+        if (starting.get()) {
+            throw new IllegalStateException();
+        }
+        return new SegmentRingBuffer(this, capacityBits, entryLayout, Arena.ofAuto());
+    }
+
     @Nonnull
     public DisruptorThread newThread(@Nonnull ThreadFactory threadFactory) {
         if (starting.get()) {
@@ -77,6 +110,20 @@ public class Disruptor implements AutoCloseable {
         return new DisruptorThread(this, threadFactory);
     }
 
+    /**
+     * @param affinity CPUs the thread is pinned to once started, e.g. a core of its own from a {@link CoreList}
+     */
+    @Nonnull
+    public DisruptorThread newThread(@Nonnull ThreadFactory threadFactory, @Nonnull BitSet affinity) {
+        if (starting.get()) {
+            throw new IllegalStateException();
+        }
+        if (affinity.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        return new DisruptorThread(this, threadFactory, affinity);
+    }
+
     public void addWorker(@Nonnull DisruptorThread thread, @Nonnull Worker worker) {
         if (starting.get()) {
             throw new IllegalStateException();
@@ -95,19 +142,45 @@ public class Disruptor implements AutoCloseable {
         return terminate;
     }
 
+    /**
+     * Starts the worker threads and waits for them to apply their CPU affinity, at most
+     * {@value #PLACEMENT_TIMEOUT_SECONDS} seconds, to log where each of them runs.
+     */
     public void start() {
 
         if (starting.getAndSet(true)) {
             throw new IllegalStateException();
         }
 
+        final var placed = new CountDownLatch(workers.size());
         for (final var workerInfo : workers) {
-            workerInfo.start();
+            workerInfo.start(placed);
         }
 
+        reportPlacement(placed);
+
         started.set(true);
     }
 
+    private void reportPlacement(@Nonnull CountDownLatch placed) {
+
+        try {
+            if (!placed.await(PLACEMENT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Not all disruptor threads reported their CPU placement");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (final var workerInfo : workers) {
+            final var thread = workerInfo.thread;
+            final var placement = thread.getPlacement();
+            logger.info("Disruptor thread {} placement: {}{}", thread.getThread().getName(),
+                    placement == null ? "unknown" : placement, thread.getAffinity() == null ? "" : " (pinned)");
+        }
+    }
+
     /**
      * It sends ShutdownEvent. This event MUST be the last processed by every handler. Further events processing
      * MUST NOT generate any new events nor generate any other changes or outgoing messages. Only event persister is
@@ -199,8 +272,8 @@ public class Disruptor implements AutoCloseable {
             this.worker = worker;
         }
 
-        public void start() {
-            thread.start(worker);
+        public void start(@Nonnull CountDownLatch placed) {
+            thread.start(worker, placed);
         }
     }
 }
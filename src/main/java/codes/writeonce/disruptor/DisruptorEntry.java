@@ -8,12 +8,21 @@ public class DisruptorEntry<T> {
 
     public long incomingNanos;
 
-    public Object[] slots;
+    public SlotValues slots;
 
     public boolean replay;
 
+    /**
+     * Set by the main worker unless it runs with an {@link EpochClock}, see {@link #getTimestamp()}.
+     */
     public Instant timestamp;
 
+    /**
+     * Nanoseconds since the epoch, set by the main worker running with an {@link EpochClock} instead of
+     * {@link #timestamp}.
+     */
+    public long timestampNanos;
+
     public T event;
 
     public ArrayList<ConnectorShutdown> connectorShutdowns;
@@ -25,12 +34,30 @@ public class DisruptorEntry<T> {
     public void clean(@Nonnull Slots slots) {
         incomingNanos = 0;
         replay = false;
-        timestamp = null;
+        if (timestamp != null) {
+            timestamp = null;
+        }
+        timestampNanos = 0;
         event = null;
         connectorShutdowns = null;
         slots.clean(this.slots);
     }
 
+    /**
+     * @return the timestamp in either mode, allocated in the epoch nanoseconds one
+     */
+    @Nonnull
+    public Instant getTimestamp() {
+        return timestamp == null ? Instant.ofEpochSecond(0, timestampNanos) : timestamp;
+    }
+
+    /**
+     * @return the timestamp in either mode as nanoseconds since the epoch
+     */
+    public long getEpochNanos() {
+        return timestamp == null ? timestampNanos : timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano();
+    }
+
     public synchronized void addConnectorShutdown(@Nonnull Connector connector) throws Exception {
 
         if (connectorShutdowns == null) {
@@ -4,6 +4,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
 
 public final class DisruptorThread {
@@ -16,15 +20,30 @@ public final class DisruptorThread {
     @Nonnull
     private final Thread thread;
 
+    @Nullable
+    private final BitSet affinity;
+
     private Worker worker;
 
+    @Nullable
+    private CountDownLatch placed;
+
+    @Nullable
+    private volatile BitSet placement;
+
     DisruptorThread(@Nonnull Disruptor disruptor, @Nonnull ThreadFactory threadFactory) {
+        this(disruptor, threadFactory, null);
+    }
+
+    DisruptorThread(@Nonnull Disruptor disruptor, @Nonnull ThreadFactory threadFactory, @Nullable BitSet affinity) {
         this.disruptor = disruptor;
         this.thread = threadFactory.newThread(this::run);
+        this.affinity = affinity == null ? null : (BitSet) affinity.clone();
     }
 
-    void start(@Nonnull Worker worker) {
+    void start(@Nonnull Worker worker, @Nonnull CountDownLatch placed) {
         this.worker = worker;
+        this.placed = placed;
         thread.start();
     }
 
@@ -33,7 +52,30 @@ public final class DisruptorThread {
         return thread;
     }
 
+    /**
+     * @return CPUs requested for the thread, {@code null} if any
+     */
+    @Nullable
+    public BitSet getAffinity() {
+        return affinity == null ? null : (BitSet) affinity.clone();
+    }
+
+    /**
+     * @return CPUs the running thread is allowed on, {@code null} if not started yet or unknown on this platform
+     */
+    @Nullable
+    public BitSet getPlacement() {
+        final var cpus = placement;
+        return cpus == null ? null : (BitSet) cpus.clone();
+    }
+
     private void run() {
+        try {
+            place();
+        } finally {
+            assert placed != null;
+            placed.countDown();
+        }
         try {
             worker.run();
             logger.info("Disruptor thread completed: {}", Thread.currentThread().getName());
@@ -42,4 +84,23 @@ public final class DisruptorThread {
             logger.error("Disruptor thread failed: {}", Thread.currentThread().getName(), e);
         }
     }
+
+    private void place() {
+
+        if (!CpuAffinity.isSupported()) {
+            if (affinity != null) {
+                logger.warn("CPU affinity is not supported, thread {} is not pinned", thread.getName());
+            }
+            return;
+        }
+
+        try {
+            if (affinity != null) {
+                CpuAffinity.set(affinity);
+            }
+            placement = CpuAffinity.get();
+        } catch (IOException e) {
+            logger.warn("Failed to pin thread {} to CPUs {}", thread.getName(), affinity, e);
+        }
+    }
 }
@@ -28,11 +28,23 @@ public class DisruptorWebSender<T> implements WebSender<T> {
 
     @Override
     public void send(long incomingNanos, @Nonnull T event, @Nonnull NettyRequestContext requestContext) {
-        sender.send(incomingNanos, event, requestSlot, requestContext);
+        sender.send(incomingNanos, DisruptorWebSender::translate, event, requestSlot, requestContext);
     }
 
     @Override
     public void send(long incomingNanos, @Nonnull T event, @Nonnull WebSocketProtocolHandler webSocketProtocolHandler) {
-        sender.send(incomingNanos, event, websocketSlot, webSocketProtocolHandler);
+        sender.send(incomingNanos, DisruptorWebSender::translate, event, websocketSlot, webSocketProtocolHandler);
+    }
+
+    @Override
+    public <E extends T, A, B> void send(long incomingNanos, @Nonnull Slot<E> payloadSlot,
+            @Nonnull PayloadTranslator<E, A, B> translator, A arg0, B arg1,
+            @Nonnull WebSocketProtocolHandler webSocketProtocolHandler) {
+        sender.send(incomingNanos, payloadSlot, translator, arg0, arg1, websocketSlot, webSocketProtocolHandler);
+    }
+
+    private static <T, V> void translate(@Nonnull EventHolder<T> holder, T event, Slot<V> slot, V value) {
+        holder.event = event;
+        slot.set(holder.slots, value);
     }
 }
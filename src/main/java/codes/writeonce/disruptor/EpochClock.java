@@ -0,0 +1,12 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Time source of the main worker in the epoch nanoseconds timestamp mode, see {@link DisruptorEntry#timestampNanos}.
+ */
+public interface EpochClock {
+
+    /**
+     * @return nanoseconds since the epoch
+     */
+    long epochNanos();
+}
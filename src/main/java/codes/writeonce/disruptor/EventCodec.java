@@ -0,0 +1,21 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Binary form of events in the journal.
+ */
+public interface EventCodec<T> {
+
+    /**
+     * Writes the event without allocating.
+     *
+     * @param limit number of bytes available from {@code offset}
+     * @return number of bytes written, or {@code -1} if more than {@code limit} bytes are needed
+     */
+    int encode(@Nonnull T event, @Nonnull MemorySegment segment, long offset, long limit);
+
+    @Nonnull
+    T decode(@Nonnull MemorySegment segment, long offset, int length);
+}
@@ -6,7 +6,7 @@ public class EventHolder<T> {
 
     public long incomingNanos;
 
-    public Object[] slots;
+    public SlotValues slots;
 
     public T event;
 
@@ -0,0 +1,141 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded transport of a {@link QueueSender}: a preallocated {@link MultiProducerRing} of event holders carrying the
+ * counters, so sending allocates nothing. Many producers, one consumer: the main worker, which takes every ready entry
+ * at once.
+ * <p>
+ * Each holder ends with two cache lines of padding, so that producers filling neighbouring holders do not write to the
+ * same line whatever order the collector leaves the holders in. The published flags of the ring are not padded.
+ */
+public final class EventQueue<T> {
+
+    @Nonnull
+    final Disruptor disruptor;
+
+    @Nonnull
+    private final MultiProducerRing ring;
+
+    @Nonnull
+    private final Entry<T>[] holders;
+
+    @SuppressWarnings("unchecked")
+    public EventQueue(@Nonnull Disruptor disruptor, int capacityBits) {
+
+        this.disruptor = disruptor;
+        this.ring = new MultiProducerRing(capacityBits);
+        this.holders = new Entry[ring.capacity];
+        for (int i = 0; i < ring.capacity; i++) {
+            this.holders[i] = new PaddedEntry<>();
+        }
+    }
+
+    /**
+     * @return {@code false} if the queue is full
+     */
+    public boolean offer(long incomingNanos, @Nonnull T event, @Nullable AtomicLong counter) {
+
+        final var index = claim();
+        if (index < 0) {
+            return false;
+        }
+        final var holder = holders[ring.position(index)];
+        holder.incomingNanos = incomingNanos;
+        holder.event = event;
+        publish(index, counter);
+        return true;
+    }
+
+    /**
+     * @return index of the entry to fill through {@link #get(long)} and {@link #publish(long, AtomicLong)}, or
+     * {@code -1} if the queue is full
+     */
+    public long claim() {
+        return ring.claim();
+    }
+
+    @Nonnull
+    public EventHolder2<T> get(long index) {
+        return holders[ring.position(index)];
+    }
+
+    public void publish(long index, @Nullable AtomicLong counter) {
+        holders[ring.position(index)].counter = counter;
+        ring.publish(index);
+    }
+
+    /**
+     * @return number of entries ready to take, at most {@code max}
+     */
+    public int available(int max) {
+
+        final var index = ring.head();
+        var n = 0;
+        while (n < max && ring.isPublished(index + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * @param offset entry number counted from the oldest one, less than {@link #available(int)}
+     */
+    @Nonnull
+    public T getEvent(int offset) {
+        return holders[ring.position(ring.head() + offset)].event;
+    }
+
+    public long getIncomingNanos(int offset) {
+        return holders[ring.position(ring.head() + offset)].incomingNanos;
+    }
+
+    @Nullable
+    public AtomicLong getCounter(int offset) {
+        return holders[ring.position(ring.head() + offset)].counter;
+    }
+
+    /**
+     * Releases the {@code n} oldest entries.
+     */
+    public void remove(int n) {
+
+        final var index = ring.head();
+        for (int i = 0; i < n; i++) {
+            holders[ring.position(index + i)].clean();
+        }
+        ring.remove(n);
+    }
+
+    public int size() {
+        return ring.size();
+    }
+
+    private static class Entry<T> extends EventHolder2<T> {
+
+        @Nullable
+        AtomicLong counter;
+
+        @Override
+        public void clean() {
+            super.clean();
+            counter = null;
+        }
+    }
+
+    /**
+     * Padding in a subclass of its own, as fields of a class may be laid out in any order but after those of its
+     * superclasses.
+     */
+    private static final class PaddedEntry<T> extends Entry<T> {
+
+        @SuppressWarnings("unused")
+        private long padding1, padding2, padding3, padding4, padding5, padding6, padding7, padding8;
+
+        @SuppressWarnings("unused")
+        private long padding9, padding10, padding11, padding12, padding13, padding14, padding15, padding16;
+    }
+}
@@ -0,0 +1,15 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Fills an entry in place from an argument. Meant to be a static, non-capturing lambda or method reference, so that
+ * sending allocates nothing.
+ *
+ * @param <H> ring buffer entry type
+ */
+@FunctionalInterface
+public interface EventTranslatorOneArg<H, A> {
+
+    void translateTo(@Nonnull H holder, A arg0);
+}
@@ -0,0 +1,14 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Three argument {@link EventTranslatorOneArg}.
+ *
+ * @param <H> ring buffer entry type
+ */
+@FunctionalInterface
+public interface EventTranslatorThreeArg<H, A, B, C> {
+
+    void translateTo(@Nonnull H holder, A arg0, B arg1, C arg2);
+}
@@ -0,0 +1,14 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Two argument {@link EventTranslatorOneArg}.
+ *
+ * @param <H> ring buffer entry type
+ */
+@FunctionalInterface
+public interface EventTranslatorTwoArg<H, A, B> {
+
+    void translateTo(@Nonnull H holder, A arg0, B arg1);
+}
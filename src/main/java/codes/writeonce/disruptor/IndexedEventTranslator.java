@@ -0,0 +1,18 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Fills the entries of a batch in place.
+ *
+ * @param <H> ring buffer entry type
+ */
+@FunctionalInterface
+public interface IndexedEventTranslator<H> {
+
+    /**
+     * @param holder entry to fill
+     * @param index  position of the entry in the batch, starting with 0
+     */
+    void translateTo(@Nonnull H holder, int index);
+}
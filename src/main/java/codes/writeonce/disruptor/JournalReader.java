@@ -0,0 +1,163 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+
+import static codes.writeonce.disruptor.JournalWriter.HEADER_SIZE;
+import static codes.writeonce.disruptor.JournalWriter.SEGMENT_NAME;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Sequential reader of the segments a {@link JournalWriter} left in a directory, in the order they were written. Only
+ * segments existing when the reader is created are read. Each segment is mapped and loaded into memory as a whole
+ * before its records are decoded, so reading proceeds at the device's sequential bandwidth.
+ * <p>
+ * A segment ends at its first zero or {@link JournalWriter#END_OF_SEGMENT} record size, or at a size that would not
+ * fit, as left by a crash. Must be used by the thread that calls {@link #next()} first.
+ */
+public final class JournalReader<T> implements AutoCloseable {
+
+    @Nonnull
+    private final Path directory;
+
+    @Nonnull
+    private final EventCodec<T> codec;
+
+    @Nonnull
+    private final long[] segmentIndexes;
+
+    private int segmentNumber = -1;
+
+    @Nullable
+    private Arena arena;
+
+    @Nullable
+    private MemorySegment segment;
+
+    private long position;
+
+    private int size;
+
+    public JournalReader(@Nonnull Path directory, @Nonnull EventCodec<T> codec) throws IOException {
+        this(directory, codec, 0);
+    }
+
+    /**
+     * @param fromSegment index of the first segment to read, e.g. the one following a {@link Snapshot}
+     */
+    public JournalReader(@Nonnull Path directory, @Nonnull EventCodec<T> codec, long fromSegment)
+            throws IOException {
+
+        this.directory = directory;
+        this.codec = codec;
+
+        if (Files.isDirectory(directory)) {
+            try (var files = Files.list(directory)) {
+                this.segmentIndexes = files
+                        .map(e -> SEGMENT_NAME.matcher(e.getFileName().toString()))
+                        .filter(Matcher::matches)
+                        .mapToLong(e -> Long.parseLong(e.group(1)))
+                        .filter(e -> e >= fromSegment)
+                        .toArray();
+            }
+            Arrays.sort(segmentIndexes);
+        } else {
+            this.segmentIndexes = new long[0];
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return {@code false} once all records have been read
+     */
+    public boolean next() throws IOException {
+
+        position += (size + 7) & ~7L;
+        size = 0;
+
+        while (true) {
+            if (segment != null && position + HEADER_SIZE <= segment.byteSize()) {
+                final var value = segment.get(JAVA_INT, position);
+                if (value >= HEADER_SIZE && position + value <= segment.byteSize()) {
+                    size = value;
+                    return true;
+                }
+            }
+            if (!nextSegment()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return timestamp of the current record
+     */
+    public long timestamp() {
+        return segment().get(JAVA_LONG, position + 8);
+    }
+
+    /**
+     * @return decoded event of the current record
+     */
+    @Nonnull
+    public T event() {
+        return codec.decode(segment(), position + HEADER_SIZE, size - HEADER_SIZE);
+    }
+
+    @Override
+    public void close() {
+        unmap();
+        segmentNumber = segmentIndexes.length;
+    }
+
+    @Nonnull
+    private MemorySegment segment() {
+
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+
+        assert segment != null;
+        return segment;
+    }
+
+    private boolean nextSegment() throws IOException {
+
+        unmap();
+
+        if (segmentNumber + 1 >= segmentIndexes.length) {
+            segmentNumber = segmentIndexes.length;
+            return false;
+        }
+
+        segmentNumber++;
+        arena = Arena.ofConfined();
+        try (var channel = FileChannel.open(JournalWriter.segmentPath(directory, segmentIndexes[segmentNumber]),
+                READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+        segment.load();
+        position = 0;
+        return true;
+    }
+
+    private void unmap() {
+
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            segment = null;
+        }
+    }
+}
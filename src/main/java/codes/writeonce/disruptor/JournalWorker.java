@@ -0,0 +1,125 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Event persister stage: appends every entry it claims to a {@link JournalWriter} and publishes the batch only once
+ * written, so the main worker never reuses an entry that is not in the journal yet. Replayed entries are already in the
+ * journal and are skipped.
+ * <p>
+ * With a zero {@code syncIntervalNanos} every batch is forced to the storage device before it is published. Otherwise
+ * the journal is forced once the interval has passed since the last time, and whenever the stage runs out of entries.
+ * <p>
+ * A live {@link SnapshotEvent} is not journaled: it ends the current segment instead, and the index of the segment
+ * that follows is saved as the {@value #SNAPSHOT_PART} part of the snapshot, so a restart replays from there.
+ */
+public class JournalWorker<T> implements Worker {
+
+    public static final String SNAPSHOT_PART = "journal";
+
+    @Nonnull
+    private final Disruptor disruptor;
+
+    @Nonnull
+    private final RingBuffer<DisruptorEntry<T>> ringBuffer;
+
+    @Nonnull
+    private final Processor processor;
+
+    @Nonnull
+    private final JournalWriter<T> journal;
+
+    private final long syncIntervalNanos;
+
+    @Nullable
+    private final SnapshotStore snapshotStore;
+
+    public JournalWorker(
+            @Nonnull Disruptor disruptor,
+            @Nonnull RingBuffer<DisruptorEntry<T>> ringBuffer,
+            @Nonnull Processor processor,
+            @Nonnull JournalWriter<T> journal,
+            long syncIntervalNanos
+    ) {
+        this(disruptor, ringBuffer, processor, journal, syncIntervalNanos, null);
+    }
+
+    public JournalWorker(
+            @Nonnull Disruptor disruptor,
+            @Nonnull RingBuffer<DisruptorEntry<T>> ringBuffer,
+            @Nonnull Processor processor,
+            @Nonnull JournalWriter<T> journal,
+            long syncIntervalNanos,
+            @Nullable SnapshotStore snapshotStore
+    ) {
+        if (syncIntervalNanos < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.disruptor = disruptor;
+        this.ringBuffer = ringBuffer;
+        this.processor = processor;
+        this.journal = journal;
+        this.syncIntervalNanos = syncIntervalNanos;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * @return index of the first journal segment written after the snapshot
+     */
+    public static long journalSegment(@Nonnull Snapshot snapshot) throws IOException {
+        try (var in = new DataInputStream(Files.newInputStream(snapshot.part(SNAPSHOT_PART)))) {
+            return in.readLong();
+        }
+    }
+
+    @Override
+    public void run() throws Exception {
+
+        try (journal) {
+            long sequence = 0;
+            var syncNanos = System.nanoTime();
+
+            while (true) {
+                var n = processor.claimBlocking();
+                if (n != 0) {
+                    do {
+                        final var entry = ringBuffer.get(sequence++);
+                        if (!entry.replay) {
+                            if (snapshotStore != null && entry.event instanceof final SnapshotEvent event) {
+                                final var segment = journal.roll();
+                                snapshotStore.save(event.getId(), SNAPSHOT_PART,
+                                        out -> new DataOutputStream(out).writeLong(segment));
+                            } else {
+                                journal.append(entry.getEpochNanos(), entry.event);
+                            }
+                        }
+                    } while (--n != 0);
+                    if (syncIntervalNanos == 0) {
+                        journal.force();
+                    } else {
+                        final var nanos = System.nanoTime();
+                        if (nanos - syncNanos >= syncIntervalNanos) {
+                            journal.force();
+                            syncNanos = nanos;
+                        }
+                    }
+                    processor.publish(sequence);
+                } else if (disruptor.isTerminate()) {
+                    break;
+                } else {
+                    if (journal.isDirty()) {
+                        journal.force();
+                        syncNanos = System.nanoTime();
+                    }
+                    processor.idle();
+                }
+            }
+        }
+    }
+}
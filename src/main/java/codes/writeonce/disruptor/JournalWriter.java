@@ -0,0 +1,195 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only event journal in a directory of fixed-size memory-mapped segments named by their index. A record is
+ * an 8-byte aligned {@value #HEADER_SIZE}-byte header followed by the encoded event: the record size as an int, a
+ * reserved int and the entry timestamp as a long. A zero size marks the end of the written data,
+ * {@value #END_OF_SEGMENT} the end of a segment whose remainder was too short for the next record.
+ * <p>
+ * Every open starts a new segment after the existing ones. The segment following the current one is always mapped and
+ * preallocated in advance, so rolling over only swaps mappings. Not thread-safe.
+ */
+public final class JournalWriter<T> implements AutoCloseable {
+
+    static final int HEADER_SIZE = 16;
+
+    static final int END_OF_SEGMENT = -1;
+
+    static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{20})\\.journal");
+
+    private static final long PAGE_SIZE = 4096;
+
+    @Nonnull
+    private final Path directory;
+
+    private final long segmentSize;
+
+    @Nonnull
+    private final EventCodec<T> codec;
+
+    private long segmentIndex;
+
+    @Nonnull
+    private Mapping current;
+
+    @Nonnull
+    private Mapping next;
+
+    private long position;
+
+    private long syncedPosition;
+
+    /**
+     * @param segmentSize size of every segment file, a multiple of 4096
+     */
+    public JournalWriter(@Nonnull Path directory, long segmentSize, @Nonnull EventCodec<T> codec)
+            throws IOException {
+
+        if (segmentSize < PAGE_SIZE || segmentSize % PAGE_SIZE != 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.codec = codec;
+
+        Files.createDirectories(directory);
+        segmentIndex = lastSegmentIndex(directory) + 1;
+        current = map(segmentIndex);
+        next = map(segmentIndex + 1);
+    }
+
+    /**
+     * @param timestamp entry timestamp, stored as is
+     */
+    public void append(long timestamp, @Nonnull T event) throws IOException {
+
+        while (true) {
+            final var segment = current.segment;
+            final var limit = segmentSize - position - HEADER_SIZE;
+            if (limit >= 0) {
+                final var length = codec.encode(event, segment, position + HEADER_SIZE, limit);
+                if (length >= 0) {
+                    final var size = HEADER_SIZE + length;
+                    segment.set(JAVA_LONG, position + 8, timestamp);
+                    segment.set(JAVA_INT, position + 4, 0);
+                    segment.set(JAVA_INT, position, size);
+                    position += (size + 7) & ~7L;
+                    return;
+                }
+            }
+            if (position == 0) {
+                // does not fit even into an empty segment
+                throw new IllegalArgumentException();
+            }
+            rollOver();
+        }
+    }
+
+    /**
+     * Writes the records appended since the last call through to the storage device.
+     */
+    public void force() {
+
+        if (position != syncedPosition) {
+            current.segment.asSlice(syncedPosition, position - syncedPosition).force();
+            syncedPosition = position;
+        }
+    }
+
+    /**
+     * @return whether there are records not written through by {@link #force()} yet
+     */
+    public boolean isDirty() {
+        return position != syncedPosition;
+    }
+
+    @Override
+    public void close() {
+        force();
+        current.arena.close();
+        next.arena.close();
+    }
+
+    /**
+     * Ends the current segment unless it is still empty, so that following records start a new one.
+     *
+     * @return index of the segment the next record goes to
+     */
+    public long roll() throws IOException {
+
+        if (position != 0) {
+            rollOver();
+        }
+        return segmentIndex;
+    }
+
+    private void rollOver() throws IOException {
+
+        if (segmentSize - position >= Integer.BYTES) {
+            current.segment.set(JAVA_INT, position, END_OF_SEGMENT);
+            position += Integer.BYTES;
+        }
+        force();
+        current.arena.close();
+
+        current = next;
+        position = 0;
+        syncedPosition = 0;
+        segmentIndex++;
+        next = map(segmentIndex + 1);
+    }
+
+    @Nonnull
+    private Mapping map(long index) throws IOException {
+
+        try (var channel = FileChannel.open(segmentPath(directory, index), CREATE_NEW, READ, WRITE)) {
+            final var arena = Arena.ofShared();
+            final var segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize, arena);
+            // allocate the blocks and fault the pages in now rather than on the first append
+            for (long offset = 0; offset < segmentSize; offset += PAGE_SIZE) {
+                segment.set(JAVA_BYTE, offset, (byte) 0);
+            }
+            return new Mapping(arena, segment);
+        }
+    }
+
+    static long lastSegmentIndex(@Nonnull Path directory) throws IOException {
+
+        var last = -1L;
+        try (var files = Files.list(directory)) {
+            for (final var file : (Iterable<Path>) files::iterator) {
+                final var matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    last = Math.max(last, Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        return last;
+    }
+
+    @Nonnull
+    static Path segmentPath(@Nonnull Path directory, long index) {
+        return directory.resolve(String.format("%020d.journal", index));
+    }
+
+    private record Mapping(@Nonnull Arena arena, @Nonnull MemorySegment segment) {
+        // empty
+    }
+}
@@ -0,0 +1,71 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Ring buffer of {@code long} pairs, e.g. order id and price. Both values of an entry are stored next to each other
+ * in one {@code long[]}, so they share a cache line.
+ */
+public final class LongPairRingBuffer extends AbstractRingBuffer {
+
+    @Nonnull
+    private final long[] buffer;
+
+    public LongPairRingBuffer(@Nonnull Disruptor disruptor, int capacityBits) {
+        super(disruptor, capacityBits);
+        this.buffer = new long[capacity << 1];
+    }
+
+    public long getFirst(long sequence) {
+        return buffer[(int) (sequence & mask) << 1];
+    }
+
+    public long getSecond(long sequence) {
+        return buffer[((int) (sequence & mask) << 1) + 1];
+    }
+
+    public void set(long sequence, long first, long second) {
+        final var index = (int) (sequence & mask) << 1;
+        buffer[index] = first;
+        buffer[index + 1] = second;
+    }
+
+    /**
+     * Copies a claimed range into {@code dst} as interleaved pairs.
+     *
+     * @param offset offset in {@code dst}, in values
+     * @param length number of pairs
+     */
+    public void get(long sequence, @Nonnull long[] dst, int offset, int length) {
+
+        Objects.checkFromIndexSize(offset, length << 1, dst.length);
+        if (length > capacity) {
+            throw new IllegalArgumentException();
+        }
+
+        final var index = (int) (sequence & mask);
+        final var first = Math.min(length, capacity - index);
+        System.arraycopy(buffer, index << 1, dst, offset, first << 1);
+        System.arraycopy(buffer, 0, dst, offset + (first << 1), (length - first) << 1);
+    }
+
+    /**
+     * Copies interleaved pairs from {@code src} into a claimed range.
+     *
+     * @param offset offset in {@code src}, in values
+     * @param length number of pairs
+     */
+    public void set(long sequence, @Nonnull long[] src, int offset, int length) {
+
+        Objects.checkFromIndexSize(offset, length << 1, src.length);
+        if (length > capacity) {
+            throw new IllegalArgumentException();
+        }
+
+        final var index = (int) (sequence & mask);
+        final var first = Math.min(length, capacity - index);
+        System.arraycopy(src, offset, buffer, index << 1, first << 1);
+        System.arraycopy(src, offset + (first << 1), buffer, 0, (length - first) << 1);
+    }
+}
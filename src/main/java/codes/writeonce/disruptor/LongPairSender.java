@@ -0,0 +1,104 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+public class LongPairSender {
+
+    @Nonnull
+    private final Disruptor disruptor;
+
+    @Nonnull
+    private final Sequencer processor;
+
+    @Nonnull
+    private final LongPairRingBuffer ringBuffer;
+
+    public LongPairSender(
+            @Nonnull Disruptor disruptor,
+            @Nonnull Sequencer processor,
+            @Nonnull LongPairRingBuffer ringBuffer
+    ) {
+        this.disruptor = disruptor;
+        this.processor = processor;
+        this.ringBuffer = ringBuffer;
+    }
+
+    public void sendNonblocking(long first, long second) {
+
+        while (true) {
+            try {
+                final var sequence = processor.claim(1);
+                ringBuffer.set(sequence, first, second);
+                processor.publish(sequence);
+                break;
+            } catch (InsufficientCapacityException ignore) {
+                if (disruptor.isTerminate()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public void send(long first, long second) {
+
+        while (true) {
+            try {
+                final var sequence = processor.claimBlocking(1);
+                ringBuffer.set(sequence, first, second);
+                processor.publish(sequence);
+                break;
+            } catch (InsufficientCapacityException ignore) {
+                if (disruptor.isTerminate()) {
+                    break;
+                }
+                LockSupport.park();
+            }
+        }
+    }
+
+    /**
+     * @param pairs interleaved pairs
+     */
+    public void send(@Nonnull long[] pairs) {
+
+        if ((pairs.length & 1) != 0) {
+            throw new IllegalArgumentException();
+        }
+
+        send(pairs, 0, pairs.length >> 1);
+    }
+
+    /**
+     * Sends the whole batch claiming and publishing it in chunks of at most ring buffer capacity.
+     *
+     * @param pairs  interleaved pairs
+     * @param offset offset in {@code pairs}, in values
+     * @param length number of pairs
+     */
+    public void send(@Nonnull long[] pairs, int offset, int length) {
+
+        Objects.checkFromIndexSize(offset, length << 1, pairs.length);
+
+        final var capacity = ringBuffer.capacity();
+
+        while (length != 0) {
+            final var n = Math.min(length, capacity);
+            final long sequence;
+            try {
+                sequence = processor.claimBlocking(n);
+            } catch (InsufficientCapacityException ignore) {
+                if (disruptor.isTerminate()) {
+                    break;
+                }
+                LockSupport.park();
+                continue;
+            }
+            ringBuffer.set(sequence, pairs, offset, n);
+            processor.publish(sequence, sequence + n - 1);
+            offset += n << 1;
+            length -= n;
+        }
+    }
+}
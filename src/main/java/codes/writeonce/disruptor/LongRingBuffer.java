@@ -0,0 +1,58 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Ring buffer of plain {@code long} values, e.g. ids, prices in ticks or timestamps, with no per-entry object.
+ */
+public final class LongRingBuffer extends AbstractRingBuffer {
+
+    @Nonnull
+    private final long[] buffer;
+
+    public LongRingBuffer(@Nonnull Disruptor disruptor, int capacityBits) {
+        super(disruptor, capacityBits);
+        this.buffer = new long[capacity];
+    }
+
+    public long get(long sequence) {
+        return buffer[(int) (sequence & mask)];
+    }
+
+    public void set(long sequence, long value) {
+        buffer[(int) (sequence & mask)] = value;
+    }
+
+    /**
+     * Copies a claimed range into {@code dst}.
+     */
+    public void get(long sequence, @Nonnull long[] dst, int offset, int length) {
+
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        if (length > capacity) {
+            throw new IllegalArgumentException();
+        }
+
+        final var index = (int) (sequence & mask);
+        final var first = Math.min(length, capacity - index);
+        System.arraycopy(buffer, index, dst, offset, first);
+        System.arraycopy(buffer, 0, dst, offset + first, length - first);
+    }
+
+    /**
+     * Copies {@code src} into a claimed range.
+     */
+    public void set(long sequence, @Nonnull long[] src, int offset, int length) {
+
+        Objects.checkFromIndexSize(offset, length, src.length);
+        if (length > capacity) {
+            throw new IllegalArgumentException();
+        }
+
+        final var index = (int) (sequence & mask);
+        final var first = Math.min(length, capacity - index);
+        System.arraycopy(src, offset, buffer, index, first);
+        System.arraycopy(src, offset + first, buffer, 0, length - first);
+    }
+}
@@ -0,0 +1,92 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+public class LongSender {
+
+    @Nonnull
+    private final Disruptor disruptor;
+
+    @Nonnull
+    private final Sequencer processor;
+
+    @Nonnull
+    private final LongRingBuffer ringBuffer;
+
+    public LongSender(
+            @Nonnull Disruptor disruptor,
+            @Nonnull Sequencer processor,
+            @Nonnull LongRingBuffer ringBuffer
+    ) {
+        this.disruptor = disruptor;
+        this.processor = processor;
+        this.ringBuffer = ringBuffer;
+    }
+
+    public void sendNonblocking(long value) {
+
+        while (true) {
+            try {
+                final var sequence = processor.claim(1);
+                ringBuffer.set(sequence, value);
+                processor.publish(sequence);
+                break;
+            } catch (InsufficientCapacityException ignore) {
+                if (disruptor.isTerminate()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public void send(long value) {
+
+        while (true) {
+            try {
+                final var sequence = processor.claimBlocking(1);
+                ringBuffer.set(sequence, value);
+                processor.publish(sequence);
+                break;
+            } catch (InsufficientCapacityException ignore) {
+                if (disruptor.isTerminate()) {
+                    break;
+                }
+                LockSupport.park();
+            }
+        }
+    }
+
+    public void send(@Nonnull long[] values) {
+        send(values, 0, values.length);
+    }
+
+    /**
+     * Sends the whole batch claiming and publishing it in chunks of at most ring buffer capacity.
+     */
+    public void send(@Nonnull long[] values, int offset, int length) {
+
+        Objects.checkFromIndexSize(offset, length, values.length);
+
+        final var capacity = ringBuffer.capacity();
+
+        while (length != 0) {
+            final var n = Math.min(length, capacity);
+            final long sequence;
+            try {
+                sequence = processor.claimBlocking(n);
+            } catch (InsufficientCapacityException ignore) {
+                if (disruptor.isTerminate()) {
+                    break;
+                }
+                LockSupport.park();
+                continue;
+            }
+            ringBuffer.set(sequence, values, offset, n);
+            processor.publish(sequence, sequence + n - 1);
+            offset += n;
+            length -= n;
+        }
+    }
+}
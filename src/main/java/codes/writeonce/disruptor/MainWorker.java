@@ -1,12 +1,19 @@
 package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
 
 public class MainWorker<T> extends AbstractMainWorker<T> {
 
+    @Nullable
+    private final JournalReader<T> journal;
+
+    @Nullable
+    private final Snapshot snapshot;
+
     public MainWorker(
             @Nonnull Disruptor disruptor,
             @Nonnull DisruptorThread thread,
@@ -18,8 +25,24 @@ public class MainWorker<T> extends AbstractMainWorker<T> {
             @Nonnull Supplier<T> timerEventFactory,
             @Nonnull ConcurrentLinkedQueue<QueueSender.Wrapper<T>> queuedEvents
     ) {
-        super(disruptor, thread, slots, innerProcessor, externalProcessor, queue1, queue2, timerEventFactory,
-                queuedEvents);
+        this(disruptor, thread, slots, innerProcessor, externalProcessor, queue1, queue2, timerEventFactory,
+                new MainWorkerOptions<T>().setQueuedEvents(queuedEvents));
+    }
+
+    public MainWorker(
+            @Nonnull Disruptor disruptor,
+            @Nonnull DisruptorThread thread,
+            @Nonnull Slots slots,
+            @Nonnull Processor innerProcessor,
+            @Nonnull PostMultiProcessor externalProcessor,
+            @Nonnull RingBuffer<DisruptorEntry<T>> queue1,
+            @Nonnull RingBuffer<EventHolder<T>> queue2,
+            @Nonnull Supplier<T> timerEventFactory,
+            @Nonnull MainWorkerOptions<T> options
+    ) {
+        super(disruptor, thread, slots, innerProcessor, externalProcessor, queue1, queue2, timerEventFactory, options);
+        this.journal = options.journal;
+        this.snapshot = options.snapshot;
     }
 
     @Override
@@ -28,7 +51,15 @@ public class MainWorker<T> extends AbstractMainWorker<T> {
     }
 
     @Override
-    public void run() {
-        mainLoop(0, 0, queue1.capacity(), Instant.now());
+    public void run() throws Exception {
+        if (snapshot != null) {
+            restore(snapshot);
+            logger.info("Restored snapshot {}", snapshot.id());
+        }
+        if (journal == null) {
+            mainLoop(0, 0, queue1.capacity(), Instant.now());
+        } else {
+            replayAndLoop(journal);
+        }
     }
 }
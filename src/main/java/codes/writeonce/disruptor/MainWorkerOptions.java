@@ -0,0 +1,100 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Optional parts of a {@link AbstractMainWorker}, read once by its constructor. Exactly one of the queued events
+ * transports has to be set.
+ */
+public class MainWorkerOptions<T> {
+
+    @Nullable
+    ConcurrentLinkedQueue<QueueSender.Wrapper<T>> queuedEvents;
+
+    @Nullable
+    EventQueue<T> eventQueue;
+
+    @Nullable
+    SpillBuffer<T> spillBuffer;
+
+    @Nullable
+    EpochClock clock;
+
+    @Nullable
+    SnapshotStore snapshotStore;
+
+    @Nullable
+    JournalReader<T> journal;
+
+    @Nullable
+    Snapshot snapshot;
+
+    /**
+     * Unbounded transport of a {@link QueueSender}.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setQueuedEvents(@Nullable ConcurrentLinkedQueue<QueueSender.Wrapper<T>> queuedEvents) {
+        this.queuedEvents = queuedEvents;
+        return this;
+    }
+
+    /**
+     * Bounded transport of a {@link QueueSender}.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setEventQueue(@Nullable EventQueue<T> eventQueue) {
+        this.eventQueue = eventQueue;
+        return this;
+    }
+
+    /**
+     * Overflow of {@code queue2}, see {@link Sender}.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setSpillBuffer(@Nullable SpillBuffer<T> spillBuffer) {
+        this.spillBuffer = spillBuffer;
+        return this;
+    }
+
+    /**
+     * If given, entries get non-decreasing {@link DisruptorEntry#timestampNanos} from it instead of
+     * {@link DisruptorEntry#timestamp}.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setClock(@Nullable EpochClock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    /**
+     * Store to save the {@link AbstractMainWorker#SNAPSHOT_PART} part of every live {@link SnapshotEvent} to, see
+     * {@link AbstractMainWorker#snapshot(SnapshotEvent, SnapshotStore)}.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setSnapshotStore(@Nullable SnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+        return this;
+    }
+
+    /**
+     * Journal a {@link MainWorker} replays into {@code queue1} before any new event is admitted, starting at
+     * {@link JournalWorker#journalSegment(Snapshot)} if there is a snapshot to restore.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setJournal(@Nullable JournalReader<T> journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    /**
+     * Snapshot a {@link MainWorker} {@link AbstractMainWorker#restore(Snapshot) restores} before the journal is
+     * replayed.
+     */
+    @Nonnull
+    public MainWorkerOptions<T> setSnapshot(@Nullable Snapshot snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+}
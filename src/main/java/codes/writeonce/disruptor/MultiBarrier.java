@@ -1,15 +1,18 @@
 package codes.writeonce.disruptor;
 
-import jdk.internal.misc.Unsafe;
-
 import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.concurrent.atomic.AtomicReference;
 
 public final class MultiBarrier {
 
-    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
-    private static final long BASE = UNSAFE.arrayBaseOffset(int[].class);
-    private static final long SCALE = UNSAFE.arrayIndexScale(int[].class);
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Flags checked at once by {@link #scan(long, long)}, half a cache line.
+     */
+    private static final int STRIDE = 8;
 
     private final int[] availableBuffer;
 
@@ -23,6 +26,11 @@ public final class MultiBarrier {
     @Nonnull
     final AtomicReference<WaitClient> waitListHead;
 
+    /**
+     * Set while wiring once a parking consumer waits on this barrier. Publishing skips the wake-up otherwise.
+     */
+    boolean parking;
+
     public MultiBarrier(long sequence, int capacityBits, int capacity, int mask, @Nonnull Disruptor disruptor) {
         this.availableBuffer = new int[capacity];
         this.capacityBits = capacityBits;
@@ -40,21 +48,83 @@ public final class MultiBarrier {
 
         setAvailableBufferValue(index, flag);
 
-        WaitClient.wakeupAll(waitListHead);
+        if (parking) {
+            WaitClient.wakeupAll(waitListHead);
+        }
+    }
+
+    /**
+     * Only the first flag of the range is an ordered store: consumers scan in order, so they never look past
+     * {@code lo} before they have observed it.
+     *
+     * @param lo first sequence of the range
+     * @param hi last sequence of the range, inclusive
+     */
+    void publish(long lo, long hi) {
+
+        for (var sequence = hi; sequence != lo; sequence--) {
+            availableBuffer[calculateIndex(sequence)] = calculateAvailabilityFlag(sequence);
+        }
+
+        setAvailableBufferValue(calculateIndex(lo), calculateAvailabilityFlag(lo));
+
+        if (parking) {
+            WaitClient.wakeupAll(waitListHead);
+        }
     }
 
     boolean isAvailable(long sequence) {
 
         final var index = calculateIndex(sequence);
         final var flag = calculateAvailabilityFlag(sequence);
-        final var bufferAddress = index * SCALE + BASE;
-        return UNSAFE.getIntVolatile(availableBuffer, bufferAddress) == flag;
+        return (int) AVAILABLE.getVolatile(availableBuffer, index) == flag;
+    }
+
+    /**
+     * Finds the end of the contiguous published run starting at {@code sequence}. Whole strides of flags are compared
+     * at once with plain-cost reads and ordered against the caller's subsequent entry reads by one fence.
+     *
+     * @param sequence first sequence to check
+     * @param limit    upper bound of the scan, exclusive
+     * @return first unpublished sequence, or {@code limit}
+     */
+    long scan(long sequence, long limit) {
+
+        while (sequence != limit) {
+            final var index = calculateIndex(sequence);
+            final var flag = calculateAvailabilityFlag(sequence);
+            if (limit - sequence >= STRIDE && index + STRIDE <= availableBuffer.length) {
+                var available = true;
+                for (int i = 0; i < STRIDE; i++) {
+                    available &= (int) AVAILABLE.getOpaque(availableBuffer, index + i) == flag;
+                }
+                if (available) {
+                    sequence += STRIDE;
+                    continue;
+                }
+                for (int i = 0; i < STRIDE && (int) AVAILABLE.getOpaque(availableBuffer, index + i) == flag; i++) {
+                    sequence++;
+                }
+                break;
+            }
+            if ((int) AVAILABLE.getOpaque(availableBuffer, index) != flag) {
+                break;
+            }
+            sequence++;
+        }
+
+        VarHandle.acquireFence();
+        return sequence;
     }
 
     private void setAvailableBufferValue(int index, int flag) {
 
-        final var bufferAddress = index * SCALE + BASE;
-        UNSAFE.putIntVolatile(availableBuffer, bufferAddress, flag);
+        // parking consumers need the volatile store to order it before the wait-list read:
+        if (parking) {
+            AVAILABLE.setVolatile(availableBuffer, index, flag);
+        } else {
+            AVAILABLE.setRelease(availableBuffer, index, flag);
+        }
     }
 
     private int calculateAvailabilityFlag(final long sequence) {
@@ -4,7 +4,7 @@ import javax.annotation.Nonnull;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
-public final class MultiProcessor {
+public final class MultiProcessor implements Sequencer {
 
     private final int capacity;
 
@@ -30,6 +30,10 @@ public final class MultiProcessor {
         this.barriers = Stream.of(barriers).map(e -> e.sequence).toArray(Sequence[]::new);
         this.waitListHeads = toArray(Stream.of(barriers).map(e -> e.waitListHead));
         this.gatingSequenceCache = new Sequence(sequence.get() - capacity);
+        // producers park on a full ring:
+        for (final var barrier : barriers) {
+            barrier.parking = true;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -38,6 +42,7 @@ public final class MultiProcessor {
         return stream.toArray(AtomicReference[]::new);
     }
 
+    @Override
     public long claim(int n) throws InsufficientCapacityException {
 
         if (n < 1) {
@@ -82,6 +87,7 @@ public final class MultiProcessor {
         return sequence;
     }
 
+    @Override
     public long claimBlocking(int n) throws InsufficientCapacityException {
 
         if (n < 1) {
@@ -131,12 +137,29 @@ public final class MultiProcessor {
         return sequence;
     }
 
+    @Override
+    public long getCursor() {
+        return sequence.get();
+    }
+
     /**
      * Must be called for each processed sequence.
      *
      * @param sequence sequence to publish
      */
+    @Override
     public void publish(long sequence) {
         publisherBarrier.publish(sequence);
     }
+
+    /**
+     * Publishes a range claimed by a single {@link #claim(int)} or {@link #claimBlocking(int)} with one wake-up.
+     *
+     * @param lo first sequence to publish
+     * @param hi last sequence to publish, inclusive
+     */
+    @Override
+    public void publish(long lo, long hi) {
+        publisherBarrier.publish(lo, hi);
+    }
 }
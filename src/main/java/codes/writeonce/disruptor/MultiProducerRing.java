@@ -0,0 +1,103 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Indexes of a bounded ring with many producers and one consumer, the entries kept by the owner in arrays of
+ * {@link #capacity} elements at {@link #position(long)}. A producer claims an index, fills its entry and publishes it;
+ * the consumer takes the published entries in index order and releases them.
+ */
+final class MultiProducerRing {
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+
+    final int capacity;
+
+    private final int mask;
+
+    /**
+     * Index of the entry last written to each position.
+     */
+    @Nonnull
+    private final long[] published;
+
+    /**
+     * Next index to claim.
+     */
+    @Nonnull
+    private final Sequence tail = new Sequence(0);
+
+    /**
+     * Next index to take, advanced by the consumer only.
+     */
+    @Nonnull
+    private final Sequence head = new Sequence(0);
+
+    MultiProducerRing(int capacityBits) {
+
+        if (capacityBits < 0 || capacityBits > 30) {
+            throw new IllegalArgumentException();
+        }
+
+        this.capacity = 1 << capacityBits;
+        this.mask = capacity - 1;
+        this.published = new long[capacity];
+        Arrays.fill(published, -1);
+    }
+
+    /**
+     * @return the claimed index, or {@code -1} if the ring is full
+     */
+    long claim() {
+
+        while (true) {
+            final var index = tail.get();
+            if (index - head.get() >= capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(index, index + 1)) {
+                return index;
+            }
+        }
+    }
+
+    int position(long index) {
+        return (int) index & mask;
+    }
+
+    void publish(long index) {
+        PUBLISHED.setRelease(published, (int) index & mask, index);
+    }
+
+    boolean isPublished(long index) {
+        return (long) PUBLISHED.getAcquire(published, (int) index & mask) == index;
+    }
+
+    /**
+     * @return next index to take
+     */
+    long head() {
+        return head.get();
+    }
+
+    /**
+     * @return next index to claim
+     */
+    long tail() {
+        return tail.get();
+    }
+
+    /**
+     * Releases the {@code n} oldest entries.
+     */
+    void remove(int n) {
+        head.setRelease(head.get() + n);
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
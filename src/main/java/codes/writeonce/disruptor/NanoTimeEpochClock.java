@@ -0,0 +1,19 @@
+package codes.writeonce.disruptor;
+
+/**
+ * {@link System#nanoTime()} shifted to the wall clock once, at creation. Cheaper than {@link SystemEpochClock} and
+ * never goes back, but does not follow later wall clock adjustments.
+ */
+public final class NanoTimeEpochClock implements EpochClock {
+
+    private final long offset;
+
+    public NanoTimeEpochClock() {
+        this.offset = SystemEpochClock.INSTANCE.epochNanos() - System.nanoTime();
+    }
+
+    @Override
+    public long epochNanos() {
+        return offset + System.nanoTime();
+    }
+}
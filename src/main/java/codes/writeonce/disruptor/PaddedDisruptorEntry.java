@@ -0,0 +1,26 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Entry followed by two cache lines of padding, 128 bytes as the adjacent line prefetcher pulls lines in pairs, so
+ * that threads writing neighbouring entries do not write to the same line. The padding is part of the object: unlike
+ * separate filler objects, it does not depend on the order the collector copies the entries in. The fields of a class
+ * are laid out after those of its superclasses, so the padding follows the fields of the entry.
+ * <p>
+ * Only the entry is padded, not the objects it refers to. In particular the {@link SlotValues} of an
+ * {@link EventHolder} and of an entry are swapped on every hand-off, so they soon sit next to the values of other
+ * entries and may share cache lines with them.
+ */
+public class PaddedDisruptorEntry<T> extends DisruptorEntry<T> {
+
+    @SuppressWarnings("unused")
+    protected long padding1, padding2, padding3, padding4, padding5, padding6, padding7, padding8;
+
+    @SuppressWarnings("unused")
+    protected long padding9, padding10, padding11, padding12, padding13, padding14, padding15, padding16;
+
+    public PaddedDisruptorEntry(@Nonnull Slots slots) {
+        super(slots);
+    }
+}
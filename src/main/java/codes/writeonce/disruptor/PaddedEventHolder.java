@@ -0,0 +1,20 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Holder followed by two cache lines of padding, for the producers filling neighbouring {@code queue2} entries. See
+ * {@link PaddedDisruptorEntry}.
+ */
+public class PaddedEventHolder<T> extends EventHolder<T> {
+
+    @SuppressWarnings("unused")
+    protected long padding1, padding2, padding3, padding4, padding5, padding6, padding7, padding8;
+
+    @SuppressWarnings("unused")
+    protected long padding9, padding10, padding11, padding12, padding13, padding14, padding15, padding16;
+
+    public PaddedEventHolder(@Nonnull Slots slots) {
+        super(slots);
+    }
+}
@@ -0,0 +1,29 @@
+package codes.writeonce.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks until a publisher wakes the consumer up.
+ */
+public final class ParkingWaitStrategy implements WaitStrategy {
+
+    public static final ParkingWaitStrategy INSTANCE = new ParkingWaitStrategy();
+
+    private ParkingWaitStrategy() {
+        // empty
+    }
+
+    @Override
+    public boolean isParking() {
+        return true;
+    }
+
+    @Override
+    public void idle(int idleCount, long nanos) {
+        if (nanos == Long.MAX_VALUE) {
+            LockSupport.park();
+        } else {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
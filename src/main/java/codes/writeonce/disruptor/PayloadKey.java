@@ -0,0 +1,38 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Slot of an event payload preallocated per entry: created once when the entry is, reset instead of dropped when the
+ * entry is cleaned. Sent with {@link Sender#send(long, Slot, PayloadTranslator, Object, Object)}, the payload moves
+ * between the entries of {@code queue2} and {@code queue1} with the other slot values, so each entry always owns one
+ * payload of each type.
+ *
+ * @param <E> payload type, the type tag
+ */
+public final class PayloadKey<E> implements SlotKey<E> {
+
+    @Nonnull
+    private final Supplier<E> factory;
+
+    @Nonnull
+    private final Consumer<? super E> reset;
+
+    public PayloadKey(@Nonnull Supplier<E> factory, @Nonnull Consumer<? super E> reset) {
+        this.factory = factory;
+        this.reset = reset;
+    }
+
+    @Override
+    public E init() {
+        return factory.get();
+    }
+
+    @Override
+    public E clean(@Nonnull E value) {
+        reset.accept(value);
+        return value;
+    }
+}
@@ -0,0 +1,14 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Fills a preallocated payload in place. Meant to be a non-capturing lambda, the data passed as the arguments.
+ *
+ * @param <E> payload type
+ */
+@FunctionalInterface
+public interface PayloadTranslator<E, A, B> {
+
+    void translateTo(@Nonnull E payload, A arg0, B arg1);
+}
@@ -1,15 +1,11 @@
 package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.atomic.AtomicReference;
 
 public final class PostMultiProcessor {
 
     @Nonnull
-    private final Sequence publisherSequence;
-
-    @Nonnull
-    private final AtomicReference<WaitClient> publisherWaitListHead;
+    private final Barrier publisherBarrier;
 
     @Nonnull
     private final MultiBarrier barrier;
@@ -20,85 +16,108 @@ public final class PostMultiProcessor {
     @Nonnull
     private final WaitClientWrapper waitClient;
 
+    @Nonnull
+    private final WaitStrategy waitStrategy;
+
+    private final boolean parking;
+
     private long sequence;
 
+    /**
+     * Last observed producers' claim cursor: everything below it is at least claimed, so it is re-read only once the
+     * consumer has caught up with it.
+     */
+    private long cursorCache;
+
+    private int idleCount;
+
     public PostMultiProcessor(@Nonnull Barrier publisherBarrier, @Nonnull MultiBarrier barrier,
             @Nonnull Thread thread) {
-        this.publisherSequence = publisherBarrier.sequence;
-        this.publisherWaitListHead = publisherBarrier.waitListHead;
-        this.sequence = publisherSequence.get();
+        this(publisherBarrier, barrier, thread, ParkingWaitStrategy.INSTANCE);
+    }
+
+    public PostMultiProcessor(@Nonnull Barrier publisherBarrier, @Nonnull MultiBarrier barrier,
+            @Nonnull Thread thread, @Nonnull WaitStrategy waitStrategy) {
+        this.publisherBarrier = publisherBarrier;
+        this.sequence = publisherBarrier.sequence.get();
+        this.cursorCache = sequence;
         this.barrier = barrier;
         this.barrierSequence = barrier.sequence;
         this.waitClient = new WaitClientWrapper(barrier.waitListHead, new WaitClient(thread));
+        this.waitStrategy = waitStrategy;
+        this.parking = waitStrategy.isParking();
+        if (parking) {
+            barrier.parking = true;
+        }
     }
 
     public int claim() {
 
-        var count = (int) (barrierSequence.get() - sequence);
-
-        if (count == 0) {
-            return 0;
-        }
-
-        var i = sequence;
-        while (true) {
-            if (!barrier.isAvailable(i)) {
-                break;
-            }
-            i++;
-            if (--count == 0) {
-                break;
+        var limit = cursorCache;
+        if (limit == sequence) {
+            limit = barrierSequence.get();
+            if (limit == sequence) {
+                return 0;
             }
+            cursorCache = limit;
         }
+
+        final var i = barrier.scan(sequence, limit);
         final var n = (int) (i - sequence);
         sequence = i;
         return n;
     }
 
+    /**
+     * Claims like {@link #claim()}, but when nothing is available a parking consumer also registers for a wake-up, so
+     * it may call {@link #idle()} next.
+     */
     public int claimBlocking() {
 
-        var count = (int) (barrierSequence.get() - sequence);
+        var n = claim();
+        if (n != 0) {
+            idleCount = 0;
+            return n;
+        }
+
+        if (!parking) {
+            return 0;
+        }
 
-        if (count == 0) {
-            waitClient.await();
-            count = (int) (barrierSequence.get() - sequence);
-            if (count == 0) {
-                return 0;
-            }
-            var i = sequence;
-            if (!barrier.isAvailable(i)) {
+        waitClient.await();
+
+        // full volatile re-reads after registering, so a concurrent publish can't be missed:
+        if (cursorCache == sequence) {
+            cursorCache = barrierSequence.get();
+            if (cursorCache == sequence) {
                 return 0;
             }
-            i++;
-            while (--count != 0 && barrier.isAvailable(i)) {
-                i++;
-            }
-            final var n = (int) (i - sequence);
-            sequence = i;
-            return n;
-        } else {
-            var i = sequence;
-            if (!barrier.isAvailable(i)) {
-                waitClient.await();
-                if (!barrier.isAvailable(i)) {
-                    return 0;
-                }
-            }
-            i++;
-            while (--count != 0 && barrier.isAvailable(i)) {
-                i++;
-            }
-            final var n = (int) (i - sequence);
-            sequence = i;
-            return n;
         }
+        if (!barrier.isAvailable(sequence)) {
+            return 0;
+        }
+
+        n = claim();
+        idleCount = 0;
+        return n;
+    }
+
+    /**
+     * Idles according to the wait strategy after {@link #claimBlocking()} returned zero.
+     */
+    public void idle() {
+        waitStrategy.idle(++idleCount, Long.MAX_VALUE);
+    }
+
+    @Nonnull
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
     }
 
     /**
      * @param sequence first unpublished sequence
      */
     public void publish(long sequence) {
-        publisherSequence.set(sequence);
-        WaitClient.wakeupAll(publisherWaitListHead);
+        publisherBarrier.publish(sequence);
     }
 }
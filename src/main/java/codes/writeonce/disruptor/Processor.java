@@ -1,16 +1,13 @@
 package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 public final class Processor {
 
     @Nonnull
-    private final Sequence publisherSequence;
-
-    @Nonnull
-    private final AtomicReference<WaitClient> publisherWaitListHead;
+    private final Barrier publisherBarrier;
 
     @Nonnull
     private final Sequence[] sequences;
@@ -18,15 +15,52 @@ public final class Processor {
     @Nonnull
     private final WaitClientWrapper[] waitClients;
 
+    @Nonnull
+    private final WaitStrategy waitStrategy;
+
+    private final boolean parking;
+
     private long sequence;
 
+    /**
+     * Minimum of the gating sequences as last computed; they are not read again until {@link #sequence} reaches it.
+     */
+    private long gatingSequenceCache;
+
+    /**
+     * Last observed value of each gating sequence, a lower bound of its current value.
+     */
+    @Nonnull
+    private final long[] gatingSequences;
+
+    /**
+     * Index of the gating sequence that held the minimum last time.
+     */
+    private int slowest;
+
+    private int idleCount;
+
     public Processor(@Nonnull Barrier publisherBarrier, @Nonnull Barrier[] barriers, @Nonnull Thread thread) {
-        this.publisherSequence = publisherBarrier.sequence;
-        this.publisherWaitListHead = publisherBarrier.waitListHead;
-        this.sequence = publisherSequence.get();
+        this(publisherBarrier, barriers, thread, ParkingWaitStrategy.INSTANCE);
+    }
+
+    public Processor(@Nonnull Barrier publisherBarrier, @Nonnull Barrier[] barriers, @Nonnull Thread thread,
+            @Nonnull WaitStrategy waitStrategy) {
+        this.publisherBarrier = publisherBarrier;
+        this.sequence = publisherBarrier.sequence.get();
+        this.gatingSequenceCache = sequence;
         this.sequences = Stream.of(barriers).map(e -> e.sequence).toArray(Sequence[]::new);
+        this.gatingSequences = new long[sequences.length];
+        Arrays.fill(gatingSequences, sequence);
         this.waitClients = Stream.of(barriers).map(e -> new WaitClientWrapper(e.waitListHead, new WaitClient(thread)))
                 .toArray(WaitClientWrapper[]::new);
+        this.waitStrategy = waitStrategy;
+        this.parking = waitStrategy.isParking();
+        if (parking) {
+            for (final var barrier : barriers) {
+                barrier.parking = true;
+            }
+        }
     }
 
     public int claim() {
@@ -40,54 +74,94 @@ public final class Processor {
 
     private long getMinCount() {
 
-        var min = sequences[0].get() - sequence;
-        for (int i = 1, n = sequences.length; i < n; i++) {
-            min = Math.min(min, sequences[i].get() - sequence);
+        if (gatingSequenceCache == sequence) {
+            var min = sequences[slowest].get();
+            if (min == sequence) {
+                return 0;
+            }
+            gatingSequences[slowest] = min;
+            for (int i = 0, n = sequences.length; i < n; i++) {
+                if (gatingSequences[i] - min < 0) {
+                    final var value = sequences[i].get();
+                    gatingSequences[i] = value;
+                    if (value - min < 0) {
+                        min = value;
+                        slowest = i;
+                    }
+                }
+            }
+            gatingSequenceCache = min;
         }
 
-        return min;
+        return gatingSequenceCache - sequence;
     }
 
+    /**
+     * Claims like {@link #claim()}, but when nothing is available a parking consumer also registers for a wake-up, so
+     * it may call {@link #idle()} next.
+     */
     public int claimBlocking() {
 
-        final var count = getMinCountBlocking();
+        final var count = parking ? getMinCountBlocking() : getMinCount();
         if (count > 0) {
             sequence += count;
+            idleCount = 0;
         }
         return (int) count;
     }
 
     private long getMinCountBlocking() {
 
-        var min = sequences[0].get() - sequence;
-        if (min == 0) {
-            waitClients[0].await();
-            min = sequences[0].get() - sequence;
-            if (min == 0) {
-                return min;
+        if (gatingSequenceCache == sequence) {
+            var min = sequences[slowest].get();
+            if (min == sequence) {
+                waitClients[slowest].await();
+                min = sequences[slowest].get();
+                if (min == sequence) {
+                    return 0;
+                }
             }
-        }
-
-        for (int i = 1, n = sequences.length; i < n; i++) {
-            var value = sequences[i].get() - sequence;
-            if (value == 0) {
-                waitClients[i].await();
-                value = sequences[i].get() - sequence;
-                if (value == 0) {
-                    return value;
+            gatingSequences[slowest] = min;
+            for (int i = 0, n = sequences.length; i < n; i++) {
+                if (gatingSequences[i] - min < 0) {
+                    var value = sequences[i].get();
+                    if (value == sequence) {
+                        waitClients[i].await();
+                        value = sequences[i].get();
+                        if (value == sequence) {
+                            slowest = i;
+                            return 0;
+                        }
+                    }
+                    gatingSequences[i] = value;
+                    if (value - min < 0) {
+                        min = value;
+                        slowest = i;
+                    }
                 }
             }
-            min = Math.min(min, value);
+            gatingSequenceCache = min;
         }
 
-        return min;
+        return gatingSequenceCache - sequence;
+    }
+
+    /**
+     * Idles according to the wait strategy after {@link #claimBlocking()} returned zero.
+     */
+    public void idle() {
+        waitStrategy.idle(++idleCount, Long.MAX_VALUE);
+    }
+
+    @Nonnull
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
     }
 
     /**
      * @param sequence first unpublished sequence
      */
     public void publish(long sequence) {
-        publisherSequence.set(sequence);
-        WaitClient.wakeupAll(publisherWaitListHead);
+        publisherBarrier.publish(sequence);
     }
 }
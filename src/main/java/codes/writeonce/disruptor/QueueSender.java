@@ -3,14 +3,29 @@ package codes.writeonce.disruptor;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Sends events straight to the main worker, bypassing {@code queue2}: through a bounded {@link EventQueue}, waiting for
+ * room when it is full, or through an unbounded {@link ConcurrentLinkedQueue} that allocates a node per event and never
+ * waits. The latter does not carry {@code incomingNanos}: the main worker takes the time it takes the event instead.
+ */
 public class QueueSender<T> implements EventSender<T> {
 
-    @Nonnull
+    /**
+     * Pause of a producer waiting for room in a full {@link EventQueue}.
+     */
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Nullable
     private final ConcurrentLinkedQueue<Wrapper<T>> queuedEvents;
 
+    @Nullable
+    private final EventQueue<T> eventQueue;
+
     @Nonnull
     private final Thread thread;
 
@@ -19,19 +34,154 @@ public class QueueSender<T> implements EventSender<T> {
             @Nonnull DisruptorThread thread
     ) {
         this.queuedEvents = queuedEvents;
+        this.eventQueue = null;
+        this.thread = thread.getThread();
+    }
+
+    /**
+     * Unlike with a {@link ConcurrentLinkedQueue}, sending may block: on a full queue the caller wakes the main worker
+     * and parks for a while, until it has taken some events. Once the disruptor is terminated, the caller gets a
+     * {@link RejectedExecutionException} instead, as does the main worker thread itself, as nothing would ever take
+     * them.
+     */
+    public QueueSender(
+            @Nonnull EventQueue<T> eventQueue,
+            @Nonnull DisruptorThread thread
+    ) {
+        this.queuedEvents = null;
+        this.eventQueue = eventQueue;
         this.thread = thread.getThread();
     }
 
     @Override
     public void send(long incomingNanos, @Nonnull T event) {
+        send(incomingNanos, event, null);
+    }
 
-        queuedEvents.add(new Wrapper<>(event, null));
+    public void send(long incomingNanos, @Nonnull T event, @Nullable AtomicLong counter) {
+
+        if (eventQueue == null) {
+            assert queuedEvents != null;
+            queuedEvents.add(new Wrapper<>(event, counter));
+        } else {
+            final var index = claim();
+            final var holder = eventQueue.get(index);
+            holder.incomingNanos = incomingNanos;
+            holder.event = event;
+            eventQueue.publish(index, counter);
+        }
         LockSupport.unpark(thread);
     }
 
-    public void send(long incomingNanos, @Nonnull T event, @Nullable AtomicLong counter) {
+    /**
+     * Fills a queue entry in place with the translator, allocating nothing given a non-capturing one and an
+     * {@link EventQueue}, which carries {@code incomingNanos} on to the main worker. With a
+     * {@link ConcurrentLinkedQueue} a scratch holder and a queue node are allocated per event, and the main worker
+     * takes the time it takes the event instead, as for {@link #send(long, Object)}.
+     */
+    public <A> void send(long incomingNanos, @Nonnull EventTranslatorOneArg<EventHolder2<T>, A> translator, A arg0) {
+
+        final var index = claim();
+        final var holder = holder(index);
+        holder.incomingNanos = incomingNanos;
+        translator.translateTo(holder, arg0);
+        publish(index, holder);
+    }
+
+    public <A, B> void send(long incomingNanos, @Nonnull EventTranslatorTwoArg<EventHolder2<T>, A, B> translator,
+            A arg0, B arg1) {
+
+        final var index = claim();
+        final var holder = holder(index);
+        holder.incomingNanos = incomingNanos;
+        translator.translateTo(holder, arg0, arg1);
+        publish(index, holder);
+    }
+
+    public <A, B, C> void send(long incomingNanos,
+            @Nonnull EventTranslatorThreeArg<EventHolder2<T>, A, B, C> translator, A arg0, B arg1, C arg2) {
+
+        final var index = claim();
+        final var holder = holder(index);
+        holder.incomingNanos = incomingNanos;
+        translator.translateTo(holder, arg0, arg1, arg2);
+        publish(index, holder);
+    }
+
+    /**
+     * Sends an entry per argument, the entry filled with the argument at the same position of each array.
+     */
+    public <A> void sendAll(long incomingNanos, @Nonnull EventTranslatorOneArg<EventHolder2<T>, A> translator,
+            @Nonnull A[] arg0) {
+
+        for (final var a : arg0) {
+            send(incomingNanos, translator, a);
+        }
+    }
+
+    public <A, B> void sendAll(long incomingNanos, @Nonnull EventTranslatorTwoArg<EventHolder2<T>, A, B> translator,
+            @Nonnull A[] arg0, @Nonnull B[] arg1) {
+
+        if (arg1.length != arg0.length) {
+            throw new IllegalArgumentException();
+        }
+
+        for (int i = 0; i < arg0.length; i++) {
+            send(incomingNanos, translator, arg0[i], arg1[i]);
+        }
+    }
+
+    public <A, B, C> void sendAll(long incomingNanos,
+            @Nonnull EventTranslatorThreeArg<EventHolder2<T>, A, B, C> translator, @Nonnull A[] arg0, @Nonnull B[] arg1,
+            @Nonnull C[] arg2) {
+
+        if (arg1.length != arg0.length || arg2.length != arg0.length) {
+            throw new IllegalArgumentException();
+        }
+
+        for (int i = 0; i < arg0.length; i++) {
+            send(incomingNanos, translator, arg0[i], arg1[i], arg2[i]);
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException if the queue is full and the caller is the main worker thread, or the
+     *                                    disruptor is terminated
+     */
+    private long claim() {
+
+        if (eventQueue == null) {
+            return -1;
+        }
+        while (true) {
+            final var index = eventQueue.claim();
+            if (index >= 0) {
+                return index;
+            }
+            if (Thread.currentThread() == thread) {
+                throw new RejectedExecutionException("Event queue is full");
+            }
+            if (eventQueue.disruptor.isTerminate()) {
+                throw new RejectedExecutionException("Disruptor is terminated");
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(BACKOFF_NANOS);
+        }
+    }
+
+    @Nonnull
+    private EventHolder2<T> holder(long index) {
+        return eventQueue == null ? new EventHolder2<>() : eventQueue.get(index);
+    }
+
+    private void publish(long index, @Nonnull EventHolder2<T> holder) {
 
-        queuedEvents.add(new Wrapper<>(event, counter));
+        if (eventQueue == null) {
+            assert queuedEvents != null;
+            queuedEvents.add(new Wrapper<>(holder.event, null));
+        } else {
+            eventQueue.publish(index, null);
+        }
         LockSupport.unpark(thread);
     }
 
@@ -0,0 +1,21 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Reusable view of one {@link SegmentRingBuffer} entry. Subclasses add typed accessors reading and writing
+ * {@link #segment} at {@link #offset} plus the field offset, e.g. {@code segment.get(JAVA_LONG, offset + PRICE)}.
+ * Every thread keeps its own instance and re-points it to the next entry, so the hot path allocates nothing.
+ */
+public abstract class SegmentFlyweight {
+
+    protected MemorySegment segment;
+
+    protected long offset;
+
+    void wrap(@Nonnull MemorySegment segment, long offset) {
+        this.segment = segment;
+        this.offset = offset;
+    }
+}
@@ -0,0 +1,51 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Ring buffer of fixed-size records laid out back to back in one off-heap {@link MemorySegment}. Entries are
+ * accessed through {@link SegmentFlyweight}s, so there are no per-entry objects for the GC to scan.
+ */
+public final class SegmentRingBuffer extends AbstractRingBuffer {
+
+    private static final long CACHE_LINE_SIZE = 64;
+
+    @Nonnull
+    private final MemorySegment segment;
+
+    private final long entrySize;
+
+    public SegmentRingBuffer(@Nonnull Disruptor disruptor, int capacityBits, @Nonnull MemoryLayout entryLayout,
+            @Nonnull Arena arena) {
+
+        super(disruptor, capacityBits);
+        final var alignment = entryLayout.byteAlignment();
+        this.entrySize = (entryLayout.byteSize() + alignment - 1) / alignment * alignment;
+        this.segment = arena.allocate(entrySize * capacity, Math.max(alignment, CACHE_LINE_SIZE));
+    }
+
+    @Nonnull
+    public <F extends SegmentFlyweight> F get(long sequence, @Nonnull F flyweight) {
+        flyweight.wrap(segment, offset(sequence));
+        return flyweight;
+    }
+
+    /**
+     * @return byte offset of the entry within {@link #segment()}
+     */
+    public long offset(long sequence) {
+        return (sequence & mask) * entrySize;
+    }
+
+    @Nonnull
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    public long entrySize() {
+        return entrySize;
+    }
+}
@@ -1,103 +1,319 @@
 package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
+/**
+ * Multi-producer side of {@code queue2}. On a full ring the caller is parked until there is room, or, given a
+ * {@link SpillBuffer}, the event is spilled there and the call returns at once. Once the spill buffer is full too,
+ * events are rejected with {@link java.util.concurrent.RejectedExecutionException}; a batch may be sent in part.
+ */
 public class Sender<T> {
 
     @Nonnull
     private final Disruptor disruptor;
 
     @Nonnull
-    private final MultiProcessor processor;
+    private final Sequencer processor;
 
     @Nonnull
     private final RingBuffer<EventHolder<T>> ringBuffer;
 
+    @Nullable
+    private final SpillBuffer<T> spillBuffer;
+
     public Sender(
             @Nonnull Disruptor disruptor,
-            @Nonnull MultiProcessor processor,
+            @Nonnull Sequencer processor,
             @Nonnull RingBuffer<EventHolder<T>> ringBuffer
+    ) {
+        this(disruptor, processor, ringBuffer, null);
+    }
+
+    public Sender(
+            @Nonnull Disruptor disruptor,
+            @Nonnull Sequencer processor,
+            @Nonnull RingBuffer<EventHolder<T>> ringBuffer,
+            @Nullable SpillBuffer<T> spillBuffer
     ) {
         this.disruptor = disruptor;
         this.processor = processor;
         this.ringBuffer = ringBuffer;
+        this.spillBuffer = spillBuffer;
     }
 
     public void sendNonblocking(long incomingNanos, @Nonnull T event) {
+        sendOne(incomingNanos, false, (holder, e, unused1, unused2, unused3, unused4, unused5) -> holder.event = e,
+                event, null, null, null, null, null);
+    }
 
-        while (true) {
-            try {
-                final var sequence = processor.claim(1);
-                final var holder = ringBuffer.get(sequence);
-                holder.incomingNanos = incomingNanos;
-                holder.event = event;
-                processor.publish(sequence);
-                break;
-            } catch (InsufficientCapacityException ignore) {
-                if (disruptor.isTerminate()) {
-                    break;
-                }
-            }
+    public void send(long incomingNanos, @Nonnull T event) {
+        sendOne(incomingNanos, true, (holder, e, unused1, unused2, unused3, unused4, unused5) -> holder.event = e,
+                event, null, null, null, null, null);
+    }
+
+    public <V> void send(long incomingNanos, @Nonnull T event, @Nonnull Slot<V> slot, @Nonnull V value) {
+        sendOne(incomingNanos, true, (holder, e, s, v, unused1, unused2, unused3) -> {
+            holder.event = e;
+            s.set(holder.slots, v);
+        }, event, slot, value, null, null, null);
+    }
+
+    public void send(long incomingNanos, @Nonnull Consumer<EventHolder<T>> consumer) {
+        sendOne(incomingNanos, true, (holder, c, unused1, unused2, unused3, unused4, unused5) -> c.accept(holder),
+                consumer, null, null, null, null, null);
+    }
+
+    /**
+     * Sends the payload of the {@link PayloadKey} slot the entry owns, filled in place, so that nothing is allocated
+     * per event. The payload is reset once the {@code queue1} entry it ends up in is cleaned, and must not be
+     * referenced after that.
+     */
+    public <E extends T, A, B> void send(long incomingNanos, @Nonnull Slot<E> payloadSlot,
+            @Nonnull PayloadTranslator<E, A, B> translator, A arg0, B arg1) {
+        sendOne(incomingNanos, true, (holder, s, t, a, b, unused1, unused2) -> fill(holder, s, t, a, b), payloadSlot,
+                translator, arg0, arg1, null, null);
+    }
+
+    /**
+     * Also sets another slot of the entry. The slot and the value are passed on to a non-capturing writer, so this
+     * allocates nothing per event either.
+     */
+    public <E extends T, A, B, V> void send(long incomingNanos, @Nonnull Slot<E> payloadSlot,
+            @Nonnull PayloadTranslator<E, A, B> translator, A arg0, B arg1, @Nonnull Slot<V> slot, @Nonnull V value) {
+        sendOne(incomingNanos, true, (holder, s, t, a, b, s2, v) -> {
+            fill(holder, s, t, a, b);
+            s2.set(holder.slots, v);
+        }, payloadSlot, translator, arg0, arg1, slot, value);
+    }
+
+    /**
+     * Fills the entry in place with the translator, allocating nothing given a non-capturing one.
+     */
+    public <A> void send(long incomingNanos, @Nonnull EventTranslatorOneArg<EventHolder<T>, A> translator, A arg0) {
+        sendOne(incomingNanos, true, (holder, t, a, unused1, unused2, unused3, unused4) -> t.translateTo(holder, a),
+                translator, arg0, null, null, null, null);
+    }
+
+    public <A, B> void send(long incomingNanos, @Nonnull EventTranslatorTwoArg<EventHolder<T>, A, B> translator,
+            A arg0, B arg1) {
+        sendOne(incomingNanos, true, (holder, t, a, b, unused1, unused2, unused3) -> t.translateTo(holder, a, b),
+                translator, arg0, arg1, null, null, null);
+    }
+
+    public <A, B, C> void send(long incomingNanos,
+            @Nonnull EventTranslatorThreeArg<EventHolder<T>, A, B, C> translator, A arg0, B arg1, C arg2) {
+        sendOne(incomingNanos, true, (holder, t, a, b, c, unused1, unused2) -> t.translateTo(holder, a, b, c),
+                translator, arg0, arg1, arg2, null, null);
+    }
+
+    /**
+     * Sends the whole batch claiming and publishing it in chunks of at most ring buffer capacity.
+     */
+    public void send(long incomingNanos, @Nonnull T[] events) {
+        sendBatch(incomingNanos, 0, events.length,
+                (holder, source, unused1, unused2, unused3, index) -> holder.event = source[index], events, null, null,
+                null);
+    }
+
+    public void send(long incomingNanos, @Nonnull T[] events, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, events.length);
+        sendBatch(incomingNanos, offset, length,
+                (holder, source, unused1, unused2, unused3, index) -> holder.event = source[index], events, null, null,
+                null);
+    }
+
+    public void send(long incomingNanos, @Nonnull List<? extends T> events) {
+        sendBatch(incomingNanos, 0, events.size(),
+                (holder, source, unused1, unused2, unused3, index) -> holder.event = source.get(index), events, null,
+                null, null);
+    }
+
+    /**
+     * @param count      number of entries to send
+     * @param translator fills each entry in place, the entry index runs from 0 to {@code count - 1}
+     */
+    public void send(long incomingNanos, int count, @Nonnull IndexedEventTranslator<EventHolder<T>> translator) {
+
+        if (count < 0) {
+            throw new IllegalArgumentException();
         }
+
+        sendBatch(incomingNanos, 0, count,
+                (holder, t, unused1, unused2, unused3, index) -> t.translateTo(holder, index), translator, null, null,
+                null);
     }
 
-    public void send(long incomingNanos, @Nonnull T event) {
+    /**
+     * Sends an entry per argument, the entry filled with the argument at the same position of each array. Allocates
+     * nothing given a non-capturing translator.
+     */
+    public <A> void sendAll(long incomingNanos, @Nonnull EventTranslatorOneArg<EventHolder<T>, A> translator,
+            @Nonnull A[] arg0) {
+        sendBatch(incomingNanos, 0, arg0.length,
+                (holder, t, a, unused1, unused2, index) -> t.translateTo(holder, a[index]), translator, arg0, null,
+                null);
+    }
 
-        while (true) {
-            try {
-                final var sequence = processor.claimBlocking(1);
-                final var holder = ringBuffer.get(sequence);
-                holder.incomingNanos = incomingNanos;
-                holder.event = event;
-                processor.publish(sequence);
-                break;
-            } catch (InsufficientCapacityException ignore) {
-                if (disruptor.isTerminate()) {
-                    break;
-                }
-                LockSupport.park();
-            }
+    public <A, B> void sendAll(long incomingNanos, @Nonnull EventTranslatorTwoArg<EventHolder<T>, A, B> translator,
+            @Nonnull A[] arg0, @Nonnull B[] arg1) {
+
+        if (arg1.length != arg0.length) {
+            throw new IllegalArgumentException();
         }
+
+        sendBatch(incomingNanos, 0, arg0.length,
+                (holder, t, a, b, unused, index) -> t.translateTo(holder, a[index], b[index]), translator, arg0, arg1,
+                null);
     }
 
-    public <V> void send(long incomingNanos, @Nonnull T event, @Nonnull Slot<V> slot, @Nonnull V value) {
+    public <A, B, C> void sendAll(long incomingNanos,
+            @Nonnull EventTranslatorThreeArg<EventHolder<T>, A, B, C> translator, @Nonnull A[] arg0, @Nonnull B[] arg1,
+            @Nonnull C[] arg2) {
 
-        while (true) {
+        if (arg1.length != arg0.length || arg2.length != arg0.length) {
+            throw new IllegalArgumentException();
+        }
+
+        sendBatch(incomingNanos, 0, arg0.length,
+                (holder, t, a, b, c, index) -> t.translateTo(holder, a[index], b[index], c[index]), translator, arg0,
+                arg1, arg2);
+    }
+
+    /**
+     * Sends {@code count} entries filled by the writer with the arguments and the entry index, which runs from
+     * {@code index}, the writer being non-capturing.
+     */
+    private <A, B, C, D> void sendBatch(long incomingNanos, int index, int count,
+            @Nonnull BatchWriter<EventHolder<T>, A, B, C, D> writer, A arg0, B arg1, C arg2, D arg3) {
+
+        final var capacity = ringBuffer.capacity();
+
+        while (count != 0) {
+            final var n = Math.min(count, capacity);
+            final long sequence;
             try {
-                final var sequence = processor.claimBlocking(1);
-                final var holder = ringBuffer.get(sequence);
-                holder.incomingNanos = incomingNanos;
-                holder.event = event;
-                slot.set(holder.slots, value);
-                processor.publish(sequence);
-                break;
+                sequence = claimBlocking(n);
             } catch (InsufficientCapacityException ignore) {
                 if (disruptor.isTerminate()) {
                     break;
                 }
+                final var spilled = spill(incomingNanos);
+                if (spilled >= 0) {
+                    writer.write(spillBuffer.get(spilled), arg0, arg1, arg2, arg3, index);
+                    spillBuffer.publish(spilled);
+                    index++;
+                    count--;
+                    continue;
+                }
                 LockSupport.park();
+                continue;
+            }
+            final var end = sequence + n;
+            for (var i = sequence; i != end; i++) {
+                final var holder = ringBuffer.get(i);
+                holder.incomingNanos = incomingNanos;
+                writer.write(holder, arg0, arg1, arg2, arg3, index++);
             }
+            processor.publish(sequence, end - 1);
+            count -= n;
         }
     }
 
-    public void send(long incomingNanos, @Nonnull Consumer<EventHolder<T>> consumer) {
+    /**
+     * Sends an entry filled by the writer with the arguments, the writer being non-capturing.
+     *
+     * @param blocking whether to park until there is room in the ring, with no spill buffer, or to keep retrying
+     */
+    private <A, B, C, D, E, F> void sendOne(long incomingNanos, boolean blocking,
+            @Nonnull EntryWriter<EventHolder<T>, A, B, C, D, E, F> writer, A arg0, B arg1, C arg2, D arg3, E arg4,
+            F arg5) {
 
         while (true) {
             try {
-                final var sequence = processor.claimBlocking(1);
+                final var sequence = blocking ? claimBlocking(1) : claim(1);
                 final var holder = ringBuffer.get(sequence);
                 holder.incomingNanos = incomingNanos;
-                consumer.accept(holder);
+                writer.write(holder, arg0, arg1, arg2, arg3, arg4, arg5);
                 processor.publish(sequence);
                 break;
             } catch (InsufficientCapacityException ignore) {
                 if (disruptor.isTerminate()) {
                     break;
                 }
-                LockSupport.park();
+                final var spilled = spill(incomingNanos);
+                if (spilled >= 0) {
+                    writer.write(spillBuffer.get(spilled), arg0, arg1, arg2, arg3, arg4, arg5);
+                    spillBuffer.publish(spilled);
+                    break;
+                }
+                if (blocking) {
+                    LockSupport.park();
+                }
             }
         }
     }
+
+    /**
+     * Claims an entry of the spill buffer, if there is one, for the caller to fill and publish.
+     *
+     * @return index of the entry, or {@code -1} if there is no spill buffer
+     */
+    private long spill(long incomingNanos) {
+
+        if (spillBuffer == null) {
+            return -1;
+        }
+
+        final var index = spillBuffer.claim(processor.getCursor());
+        spillBuffer.get(index).incomingNanos = incomingNanos;
+        return index;
+    }
+
+    private static <T, E extends T, A, B> void fill(@Nonnull EventHolder<T> holder, @Nonnull Slot<E> payloadSlot,
+            @Nonnull PayloadTranslator<E, A, B> translator, A arg0, B arg1) {
+
+        final var payload = payloadSlot.get(holder.slots);
+        translator.translateTo(payload, arg0, arg1);
+        // set again for the compiled slots to reset it on clean
+        payloadSlot.set(holder.slots, payload);
+        holder.event = payload;
+    }
+
+    /**
+     * Claims from the ring unless events are being spilled, which must keep their order.
+     */
+    private long claim(int n) throws InsufficientCapacityException {
+
+        if (spillBuffer != null && !spillBuffer.isEmpty()) {
+            throw InsufficientCapacityException.INSTANCE;
+        }
+        return processor.claim(n);
+    }
+
+    private long claimBlocking(int n) throws InsufficientCapacityException {
+
+        if (spillBuffer == null) {
+            return processor.claimBlocking(n);
+        }
+        // the caller spills instead of parking
+        return claim(n);
+    }
+
+    private interface BatchWriter<H, A, B, C, D> {
+
+        void write(@Nonnull H holder, A arg0, B arg1, C arg2, D arg3, int index);
+    }
+
+    /**
+     * Wide enough for every single event overload to pass all its arguments, so that none of the writers captures.
+     */
+    private interface EntryWriter<H, A, B, C, D, E, F> {
+
+        void write(@Nonnull H holder, A arg0, B arg1, C arg2, D arg3, E arg4, F arg5);
+    }
 }
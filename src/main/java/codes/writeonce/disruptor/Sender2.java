@@ -1,6 +1,8 @@
 package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
@@ -10,14 +12,14 @@ public class Sender2<T> implements EventSender<T> {
     private final Disruptor disruptor;
 
     @Nonnull
-    private final MultiProcessor processor;
+    private final Sequencer processor;
 
     @Nonnull
     private final RingBuffer<EventHolder2<T>> ringBuffer;
 
     public Sender2(
             @Nonnull Disruptor disruptor,
-            @Nonnull MultiProcessor processor,
+            @Nonnull Sequencer processor,
             @Nonnull RingBuffer<EventHolder2<T>> ringBuffer
     ) {
         this.disruptor = disruptor;
@@ -26,59 +28,180 @@ public class Sender2<T> implements EventSender<T> {
     }
 
     public void sendNonblocking(long incomingNanos, @Nonnull T event) {
-
-        while (true) {
-            try {
-                final var sequence = processor.claim(1);
-                final var holder = ringBuffer.get(sequence);
-                holder.incomingNanos = incomingNanos;
-                holder.event = event;
-                processor.publish(sequence);
-                break;
-            } catch (InsufficientCapacityException ignore) {
-                if (disruptor.isTerminate()) {
-                    break;
-                }
-            }
-        }
+        sendOne(incomingNanos, false, (holder, e, unused1, unused2, unused3) -> holder.event = e, event, null, null,
+                null);
     }
 
     @Override
     public void send(long incomingNanos, @Nonnull T event) {
+        sendOne(incomingNanos, true, (holder, e, unused1, unused2, unused3) -> holder.event = e, event, null, null,
+                null);
+    }
 
-        while (true) {
+    public void send(long incomingNanos, @Nonnull Consumer<EventHolder2<T>> consumer) {
+        sendOne(incomingNanos, true, (holder, c, unused1, unused2, unused3) -> c.accept(holder), consumer, null, null,
+                null);
+    }
+
+    /**
+     * Fills the entry in place with the translator, allocating nothing given a non-capturing one.
+     */
+    public <A> void send(long incomingNanos, @Nonnull EventTranslatorOneArg<EventHolder2<T>, A> translator, A arg0) {
+        sendOne(incomingNanos, true, (holder, t, a, unused1, unused2) -> t.translateTo(holder, a), translator, arg0,
+                null, null);
+    }
+
+    public <A, B> void send(long incomingNanos, @Nonnull EventTranslatorTwoArg<EventHolder2<T>, A, B> translator,
+            A arg0, B arg1) {
+        sendOne(incomingNanos, true, (holder, t, a, b, unused) -> t.translateTo(holder, a, b), translator, arg0, arg1,
+                null);
+    }
+
+    public <A, B, C> void send(long incomingNanos,
+            @Nonnull EventTranslatorThreeArg<EventHolder2<T>, A, B, C> translator, A arg0, B arg1, C arg2) {
+        sendOne(incomingNanos, true, (holder, t, a, b, c) -> t.translateTo(holder, a, b, c), translator, arg0, arg1,
+                arg2);
+    }
+
+    /**
+     * Sends the whole batch claiming and publishing it in chunks of at most ring buffer capacity.
+     */
+    public void send(long incomingNanos, @Nonnull T[] events) {
+        sendBatch(incomingNanos, 0, events.length,
+                (holder, source, unused1, unused2, unused3, index) -> holder.event = source[index], events, null, null,
+                null);
+    }
+
+    public void send(long incomingNanos, @Nonnull T[] events, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, events.length);
+        sendBatch(incomingNanos, offset, length,
+                (holder, source, unused1, unused2, unused3, index) -> holder.event = source[index], events, null, null,
+                null);
+    }
+
+    public void send(long incomingNanos, @Nonnull List<? extends T> events) {
+        sendBatch(incomingNanos, 0, events.size(),
+                (holder, source, unused1, unused2, unused3, index) -> holder.event = source.get(index), events, null,
+                null, null);
+    }
+
+    /**
+     * @param count      number of entries to send
+     * @param translator fills each entry in place, the entry index runs from 0 to {@code count - 1}
+     */
+    public void send(long incomingNanos, int count, @Nonnull IndexedEventTranslator<EventHolder2<T>> translator) {
+
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        sendBatch(incomingNanos, 0, count,
+                (holder, t, unused1, unused2, unused3, index) -> t.translateTo(holder, index), translator, null, null,
+                null);
+    }
+
+    /**
+     * Sends an entry per argument, the entry filled with the argument at the same position of each array. Allocates
+     * nothing given a non-capturing translator.
+     */
+    public <A> void sendAll(long incomingNanos, @Nonnull EventTranslatorOneArg<EventHolder2<T>, A> translator,
+            @Nonnull A[] arg0) {
+        sendBatch(incomingNanos, 0, arg0.length,
+                (holder, t, a, unused1, unused2, index) -> t.translateTo(holder, a[index]), translator, arg0, null,
+                null);
+    }
+
+    public <A, B> void sendAll(long incomingNanos, @Nonnull EventTranslatorTwoArg<EventHolder2<T>, A, B> translator,
+            @Nonnull A[] arg0, @Nonnull B[] arg1) {
+
+        if (arg1.length != arg0.length) {
+            throw new IllegalArgumentException();
+        }
+
+        sendBatch(incomingNanos, 0, arg0.length,
+                (holder, t, a, b, unused, index) -> t.translateTo(holder, a[index], b[index]), translator, arg0, arg1,
+                null);
+    }
+
+    public <A, B, C> void sendAll(long incomingNanos,
+            @Nonnull EventTranslatorThreeArg<EventHolder2<T>, A, B, C> translator, @Nonnull A[] arg0, @Nonnull B[] arg1,
+            @Nonnull C[] arg2) {
+
+        if (arg1.length != arg0.length || arg2.length != arg0.length) {
+            throw new IllegalArgumentException();
+        }
+
+        sendBatch(incomingNanos, 0, arg0.length,
+                (holder, t, a, b, c, index) -> t.translateTo(holder, a[index], b[index], c[index]), translator, arg0,
+                arg1, arg2);
+    }
+
+    /**
+     * Sends {@code count} entries filled by the writer with the arguments and the entry index, which runs from
+     * {@code index}, the writer being non-capturing.
+     */
+    private <A, B, C, D> void sendBatch(long incomingNanos, int index, int count,
+            @Nonnull BatchWriter<EventHolder2<T>, A, B, C, D> writer, A arg0, B arg1, C arg2, D arg3) {
+
+        final var capacity = ringBuffer.capacity();
+
+        while (count != 0) {
+            final var n = Math.min(count, capacity);
+            final long sequence;
             try {
-                final var sequence = processor.claimBlocking(1);
-                final var holder = ringBuffer.get(sequence);
-                holder.incomingNanos = incomingNanos;
-                holder.event = event;
-                processor.publish(sequence);
-                break;
+                sequence = processor.claimBlocking(n);
             } catch (InsufficientCapacityException ignore) {
                 if (disruptor.isTerminate()) {
                     break;
                 }
                 LockSupport.park();
+                continue;
+            }
+            final var end = sequence + n;
+            for (var i = sequence; i != end; i++) {
+                final var holder = ringBuffer.get(i);
+                holder.incomingNanos = incomingNanos;
+                writer.write(holder, arg0, arg1, arg2, arg3, index++);
             }
+            processor.publish(sequence, end - 1);
+            count -= n;
         }
     }
 
-    public void send(long incomingNanos, @Nonnull Consumer<EventHolder2<T>> consumer) {
+    /**
+     * Sends an entry filled by the writer with the arguments, the writer being non-capturing.
+     *
+     * @param blocking whether to park until there is room in the ring or to keep retrying
+     */
+    private <A, B, C, D> void sendOne(long incomingNanos, boolean blocking,
+            @Nonnull EntryWriter<EventHolder2<T>, A, B, C, D> writer, A arg0, B arg1, C arg2, D arg3) {
 
         while (true) {
             try {
-                final var sequence = processor.claimBlocking(1);
+                final var sequence = blocking ? processor.claimBlocking(1) : processor.claim(1);
                 final var holder = ringBuffer.get(sequence);
                 holder.incomingNanos = incomingNanos;
-                consumer.accept(holder);
+                writer.write(holder, arg0, arg1, arg2, arg3);
                 processor.publish(sequence);
                 break;
             } catch (InsufficientCapacityException ignore) {
                 if (disruptor.isTerminate()) {
                     break;
                 }
-                LockSupport.park();
+                if (blocking) {
+                    LockSupport.park();
+                }
             }
         }
     }
+
+    private interface BatchWriter<H, A, B, C, D> {
+
+        void write(@Nonnull H holder, A arg0, B arg1, C arg2, D arg3, int index);
+    }
+
+    private interface EntryWriter<H, A, B, C, D> {
+
+        void write(@Nonnull H holder, A arg0, B arg1, C arg2, D arg3);
+    }
 }
@@ -1,6 +1,7 @@
 package codes.writeonce.disruptor;
 
-import jdk.internal.misc.Unsafe;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 class SequenceLeftPadding {
 
@@ -19,15 +20,13 @@ class SequenceFields extends SequenceLeftPadding {
 
 public final class Sequence extends SequenceFields {
 
-    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
-
-    private static final long VALUE;
+    private static final VarHandle VALUE;
 
     static {
         try {
-            VALUE = UNSAFE.objectFieldOffset(SequenceFields.class.getDeclaredField("sequence"));
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceFields.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
         }
     }
 
@@ -46,7 +45,15 @@ public final class Sequence extends SequenceFields {
         this.sequence = sequence;
     }
 
+    /**
+     * Ordered store: earlier writes become visible no later than the new value, but the store itself is not followed
+     * by a full fence.
+     */
+    public void setRelease(long sequence) {
+        VALUE.setRelease(this, sequence);
+    }
+
     public boolean compareAndSet(long expectedValue, long newValue) {
-        return UNSAFE.compareAndSetLong(this, VALUE, expectedValue, newValue);
+        return VALUE.compareAndSet(this, expectedValue, newValue);
     }
 }
@@ -0,0 +1,34 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Producer side of a ring buffer: claims ranges of free entries and publishes them once filled.
+ */
+public interface Sequencer {
+
+    /**
+     * @return first claimed sequence
+     * @throws InsufficientCapacityException if the ring buffer has no room for {@code n} entries
+     */
+    long claim(int n) throws InsufficientCapacityException;
+
+    /**
+     * Same as {@link #claim(int)}, but registers for a wake-up before throwing, so the caller may park.
+     */
+    long claimBlocking(int n) throws InsufficientCapacityException;
+
+    /**
+     * @return the sequence the next claim starts at
+     */
+    long getCursor();
+
+    /**
+     * @param sequence claimed sequence to publish
+     */
+    void publish(long sequence);
+
+    /**
+     * @param lo first claimed sequence to publish
+     * @param hi last claimed sequence to publish, inclusive
+     */
+    void publish(long lo, long hi);
+}
@@ -0,0 +1,145 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * {@link MultiProcessor} counterpart for a ring buffer with exactly one producer thread. Claims are plain field
+ * updates and publishing is one store of the cursor, so consumers read it through a regular {@link Barrier}.
+ */
+public final class SingleProcessor implements Sequencer {
+
+    private final int capacity;
+
+    @Nonnull
+    private final Barrier publisherBarrier;
+
+    @Nonnull
+    private final Sequence[] barriers;
+
+    @Nonnull
+    private final AtomicReference<WaitClient>[] waitListHeads;
+
+    private long sequence;
+
+    private long gatingSequenceCache;
+
+    public SingleProcessor(int capacity, @Nonnull Barrier publisherBarrier, @Nonnull Barrier[] barriers) {
+        this.capacity = capacity;
+        this.publisherBarrier = publisherBarrier;
+        this.barriers = Stream.of(barriers).map(e -> e.sequence).toArray(Sequence[]::new);
+        this.waitListHeads = toArray(Stream.of(barriers).map(e -> e.waitListHead));
+        this.sequence = publisherBarrier.sequence.get();
+        this.gatingSequenceCache = sequence - capacity;
+        // the producer parks on a full ring:
+        for (final var barrier : barriers) {
+            barrier.parking = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    private AtomicReference<WaitClient>[] toArray(@Nonnull Stream<AtomicReference<WaitClient>> stream) {
+        return stream.toArray(AtomicReference[]::new);
+    }
+
+    @Override
+    public long claim(int n) throws InsufficientCapacityException {
+
+        if (n < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        if (n > capacity) {
+            throw new IllegalArgumentException();
+        }
+
+        final var base = sequence;
+        final var wrapPoint = base + n - capacity;
+
+        if (wrapPoint > gatingSequenceCache) {
+            final var minSequence = getMinimumSequence(base);
+            gatingSequenceCache = minSequence;
+            if (wrapPoint > minSequence) {
+                throw InsufficientCapacityException.INSTANCE;
+            }
+        }
+
+        sequence = base + n;
+        return base;
+    }
+
+    private long getMinimumSequence(long sequence) {
+
+        for (final var barrier : barriers) {
+            sequence = Math.min(sequence, barrier.get());
+        }
+
+        return sequence;
+    }
+
+    @Override
+    public long claimBlocking(int n) throws InsufficientCapacityException {
+
+        if (n < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        if (n > capacity) {
+            throw new IllegalArgumentException();
+        }
+
+        final var base = sequence;
+        final var wrapPoint = base + n - capacity;
+
+        if (wrapPoint > gatingSequenceCache) {
+            gatingSequenceCache = getMinimumSequenceBlocking(base, wrapPoint);
+        }
+
+        sequence = base + n;
+        return base;
+    }
+
+    private long getMinimumSequenceBlocking(long sequence, long wrapPoint) throws InsufficientCapacityException {
+
+        for (int i = 0, n = barriers.length; i < n; i++) {
+            final var barrier = barriers[i];
+            var value = barrier.get();
+            if (wrapPoint > value) {
+                new WaitClient(Thread.currentThread()).await(waitListHeads[i]);
+                value = barrier.get();
+                if (wrapPoint > value) {
+                    throw InsufficientCapacityException.INSTANCE;
+                }
+            }
+            sequence = Math.min(sequence, value);
+        }
+
+        return sequence;
+    }
+
+    @Override
+    public long getCursor() {
+        return sequence;
+    }
+
+    /**
+     * Sequences must be published in the order they were claimed.
+     *
+     * @param sequence sequence to publish
+     */
+    @Override
+    public void publish(long sequence) {
+        publishCursor(sequence + 1);
+    }
+
+    @Override
+    public void publish(long lo, long hi) {
+        publishCursor(hi + 1);
+    }
+
+    private void publishCursor(long sequence) {
+        publisherBarrier.publish(sequence);
+    }
+}
@@ -2,33 +2,26 @@ package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
 
-public class Slot<T> {
+public abstract class Slot<T> {
 
     @Nonnull
-    private final SlotKey<T> key;
+    final SlotKey<T> key;
 
-    private final int index;
+    final int index;
 
     Slot(@Nonnull SlotKey<T> key, int index) {
         this.key = key;
         this.index = index;
     }
 
-    @SuppressWarnings("unchecked")
-    public T get(@Nonnull Object[] slots) {
-        return (T) slots[index];
-    }
+    public abstract T get(@Nonnull SlotValues slots);
 
-    public void set(@Nonnull Object[] slots, T value) {
-        slots[index] = value;
-    }
+    /**
+     * Also marks the slot to be cleaned, see {@link SlotKey#clean}.
+     */
+    public abstract void set(@Nonnull SlotValues slots, T value);
 
-    public void init(@Nonnull Object[] slots) {
-        slots[index] = key.init();
-    }
+    public abstract void init(@Nonnull SlotValues slots);
 
-    @SuppressWarnings("unchecked")
-    public void clean(@Nonnull Object[] slots) {
-        slots[index] = key.clean((T) slots[index]);
-    }
+    public abstract void clean(@Nonnull SlotValues slots);
 }
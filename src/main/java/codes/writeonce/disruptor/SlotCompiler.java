@@ -0,0 +1,408 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a slot set into a {@link SlotValues} class with an {@code Object} field per slot, and a {@link Slot} class
+ * per slot reading and writing its field directly, so that a slot access at a call site seeing a single slot is a cast
+ * and a field load once inlined. Writes also set the slot bit of {@link SlotValues#dirty}.
+ * <p>
+ * All of them are hidden classes, unloaded together with the {@link Slots} using them. A slot class cannot name the
+ * hidden values class, so it gets a {@link VarHandle} of its field as class data, loaded as a dynamic constant the JIT
+ * folds into the field access. The class files are written by hand: they are small and straight-line, so they need no
+ * stack map frames.
+ */
+final class SlotCompiler {
+
+    private static final int VERSION = 61;
+
+    private static final int ACC_PUBLIC = 0x0001;
+
+    private static final int ACC_FINAL = 0x0010;
+
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final String PACKAGE = SlotCompiler.class.getPackageName().replace('.', '/') + '/';
+
+    private static final String SLOT_VALUES = PACKAGE + "SlotValues";
+
+    private static final String SLOT = PACKAGE + "Slot";
+
+    private static final String SLOT_KEY = PACKAGE + "SlotKey";
+
+    private static final String OBJECT = "Ljava/lang/Object;";
+
+    private static final String VAR_HANDLE = "java/lang/invoke/VarHandle";
+
+    private SlotCompiler() {
+        // empty
+    }
+
+    /**
+     * @param keys slot keys in the slot index order, at most {@value Long#SIZE}
+     */
+    @Nonnull
+    static Compiled compile(@Nonnull List<SlotKey<?>> keys) {
+
+        if (keys.size() > Long.SIZE) {
+            throw new IllegalArgumentException();
+        }
+
+        final var lookup = MethodHandles.lookup();
+
+        try {
+            final var valuesLookup = lookup.defineHiddenClass(valuesClass(keys.size()), true);
+            final var valuesClass = valuesLookup.lookupClass();
+            final var valuesConstructor = valuesLookup.findConstructor(valuesClass, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(SlotValues.class));
+
+            final var slots = new Slot<?>[keys.size()];
+            for (int i = 0; i < slots.length; i++) {
+                final var field = valuesLookup.findVarHandle(valuesClass, "s" + i, Object.class);
+                final var slotClass = lookup.defineHiddenClassWithClassData(slotClass(i), field, true).lookupClass();
+                final var constructor = lookup.findConstructor(slotClass,
+                        MethodType.methodType(void.class, SlotKey.class, int.class));
+                slots[i] = (Slot<?>) constructor.invoke(keys.get(i), i);
+            }
+            return new Compiled(valuesConstructor, slots);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nonnull
+    private static byte[] valuesClass(int size) {
+
+        final var writer = new ClassWriter(PACKAGE + "Slots$Values", SLOT_VALUES);
+        for (int i = 0; i < size; i++) {
+            writer.field("s" + i, OBJECT);
+        }
+
+        final var code = writer.code();
+        code.aload(0).invokespecial(SLOT_VALUES, "<init>", "()V").op(0xb1);
+        writer.method(ACC_PUBLIC, "<init>", "()V", 1, 1, code);
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * The field is accessed through the {@link VarHandle} the class is defined with as class data.
+     */
+    @Nonnull
+    private static byte[] slotClass(int index) {
+
+        final var writer = new ClassWriter(PACKAGE + "Slots$CompiledSlot", SLOT);
+        final var slotValues = "(L" + SLOT_VALUES + ";)";
+        final var get = slotValues + OBJECT;
+        final var set = "(L" + SLOT_VALUES + ";" + OBJECT + ")V";
+
+        var code = writer.code();
+        code.aload(0).aload(1).op(0x1c).invokespecial(SLOT, "<init>", "(L" + SLOT_KEY + ";I)V").op(0xb1);
+        writer.method(ACC_PUBLIC, "<init>", "(L" + SLOT_KEY + ";I)V", 3, 3, code);
+
+        code = writer.code();
+        code.classData("L" + VAR_HANDLE + ";").aload(1).invokevirtual(VAR_HANDLE, "get", get).op(0xb0);
+        writer.method(ACC_PUBLIC, "get", get, 2, 2, code);
+
+        code = writer.code();
+        code.aload(1).op(0x59).getfield(SLOT_VALUES, "dirty", "J").ldc2(1L << index).op(0x81)
+                .putfield(SLOT_VALUES, "dirty", "J");
+        code.classData("L" + VAR_HANDLE + ";").aload(1).aload(2).invokevirtual(VAR_HANDLE, "set", set).op(0xb1);
+        writer.method(ACC_PUBLIC, "set", set, 5, 3, code);
+
+        code = writer.code();
+        code.classData("L" + VAR_HANDLE + ";").aload(1).aload(0).getfield(SLOT, "key", "L" + SLOT_KEY + ";")
+                .invokeinterface(SLOT_KEY, "init", "()" + OBJECT, 1).invokevirtual(VAR_HANDLE, "set", set).op(0xb1);
+        writer.method(ACC_PUBLIC, "init", slotValues + "V", 3, 2, code);
+
+        code = writer.code();
+        code.classData("L" + VAR_HANDLE + ";").aload(1).aload(0).getfield(SLOT, "key", "L" + SLOT_KEY + ";")
+                .classData("L" + VAR_HANDLE + ";").aload(1).invokevirtual(VAR_HANDLE, "get", get)
+                .invokeinterface(SLOT_KEY, "clean", "(" + OBJECT + ")" + OBJECT, 2)
+                .invokevirtual(VAR_HANDLE, "set", set).op(0xb1);
+        writer.method(ACC_PUBLIC, "clean", slotValues + "V", 5, 2, code);
+
+        return writer.toByteArray();
+    }
+
+    record Compiled(@Nonnull MethodHandle valuesConstructor, @Nonnull Slot<?>[] slots) {
+        // empty
+    }
+
+    private static final class ClassWriter {
+
+        private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream pool = new DataOutputStream(poolBytes);
+
+        private final Map<String, Integer> entries = new HashMap<>();
+
+        private final List<byte[]> fields = new ArrayList<>();
+
+        private final List<byte[]> methods = new ArrayList<>();
+
+        private final int thisClass;
+
+        private final int superClass;
+
+        private int poolCount = 1;
+
+        /**
+         * Pool index of the {@code MethodHandles.classData} handle, zero if not used.
+         */
+        private int classDataBootstrap;
+
+        private int bootstrapMethodsName;
+
+        ClassWriter(@Nonnull String name, @Nonnull String superName) {
+            thisClass = classRef(name);
+            superClass = classRef(superName);
+        }
+
+        void field(@Nonnull String name, @Nonnull String descriptor) {
+            fields.add(member(0, name, descriptor, null));
+        }
+
+        @Nonnull
+        Code code() {
+            return new Code(this);
+        }
+
+        void method(int access, @Nonnull String name, @Nonnull String descriptor, int maxStack, int maxLocals,
+                @Nonnull Code code) {
+
+            final var bytes = new ByteArrayOutputStream();
+            final var out = new DataOutputStream(bytes);
+            try {
+                final var body = code.bytes.toByteArray();
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(body.length);
+                out.write(body);
+                out.writeShort(0);
+                out.writeShort(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            methods.add(member(access, name, descriptor, bytes.toByteArray()));
+        }
+
+        @Nonnull
+        byte[] toByteArray() {
+
+            final var bytes = new ByteArrayOutputStream();
+            final var out = new DataOutputStream(bytes);
+            try {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(VERSION);
+                out.writeShort(poolCount);
+                out.write(poolBytes.toByteArray());
+                out.writeShort(ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(0);
+                out.writeShort(fields.size());
+                for (final var field : fields) {
+                    out.write(field);
+                }
+                out.writeShort(methods.size());
+                for (final var method : methods) {
+                    out.write(method);
+                }
+                if (classDataBootstrap == 0) {
+                    out.writeShort(0);
+                } else {
+                    out.writeShort(1);
+                    out.writeShort(bootstrapMethodsName);
+                    out.writeInt(6);
+                    out.writeShort(1);
+                    out.writeShort(classDataBootstrap);
+                    out.writeShort(0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        @Nonnull
+        private byte[] member(int access, @Nonnull String name, @Nonnull String descriptor, @Nullable byte[] code) {
+
+            final var bytes = new ByteArrayOutputStream();
+            final var out = new DataOutputStream(bytes);
+            try {
+                out.writeShort(access);
+                out.writeShort(utf8(name));
+                out.writeShort(utf8(descriptor));
+                if (code == null) {
+                    out.writeShort(0);
+                } else {
+                    out.writeShort(1);
+                    out.writeShort(utf8("Code"));
+                    out.writeInt(code.length);
+                    out.write(code);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private int utf8(@Nonnull String value) {
+            return entry("U" + value, 1, 1, out -> out.writeUTF(value));
+        }
+
+        private int classRef(@Nonnull String name) {
+            final var index = utf8(name);
+            return entry("C" + name, 7, 1, out -> out.writeShort(index));
+        }
+
+        private int longConstant(long value) {
+            return entry("J" + value, 5, 2, out -> out.writeLong(value));
+        }
+
+        private int memberRef(int tag, @Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+            final var ownerIndex = classRef(owner);
+            final var nameAndType = nameAndType(name, descriptor);
+            return entry(tag + owner + '.' + name + descriptor, tag, 1, out -> {
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int nameAndType(@Nonnull String name, @Nonnull String descriptor) {
+            final var nameIndex = utf8(name);
+            final var descriptorIndex = utf8(descriptor);
+            return entry("N" + name + ' ' + descriptor, 12, 1, out -> {
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+        }
+
+        /**
+         * @return pool index of a dynamic constant of the class data, the only bootstrap method of the class
+         */
+        private int classData(@Nonnull String descriptor) {
+
+            if (classDataBootstrap == 0) {
+                final var method = memberRef(10, "java/lang/invoke/MethodHandles", "classData",
+                        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)" + OBJECT);
+                classDataBootstrap = entry("H classData", 15, 1, out -> {
+                    // REF_invokeStatic
+                    out.writeByte(6);
+                    out.writeShort(method);
+                });
+                bootstrapMethodsName = utf8("BootstrapMethods");
+            }
+            final var nameAndType = nameAndType("_", descriptor);
+            return entry("D" + descriptor, 17, 1, out -> {
+                out.writeShort(0);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(@Nonnull String key, int tag, int size, @Nonnull EntryWriter writer) {
+
+            final var existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                pool.writeByte(tag);
+                writer.write(pool);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final var index = poolCount;
+            poolCount += size;
+            entries.put(key, index);
+            return index;
+        }
+    }
+
+    private static final class Code {
+
+        @Nonnull
+        private final ClassWriter writer;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code(@Nonnull ClassWriter writer) {
+            this.writer = writer;
+        }
+
+        @Nonnull
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        @Nonnull
+        Code aload(int local) {
+            return op(0x2a + local);
+        }
+
+        @Nonnull
+        Code getfield(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+            return op(0xb4).index(writer.memberRef(9, owner, name, descriptor));
+        }
+
+        @Nonnull
+        Code putfield(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+            return op(0xb5).index(writer.memberRef(9, owner, name, descriptor));
+        }
+
+        @Nonnull
+        Code invokevirtual(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+            return op(0xb6).index(writer.memberRef(10, owner, name, descriptor));
+        }
+
+        @Nonnull
+        Code invokespecial(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+            return op(0xb7).index(writer.memberRef(10, owner, name, descriptor));
+        }
+
+        @Nonnull
+        Code invokeinterface(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor, int count) {
+            return op(0xb9).index(writer.memberRef(11, owner, name, descriptor)).op(count).op(0);
+        }
+
+        @Nonnull
+        Code classData(@Nonnull String descriptor) {
+            return op(0x13).index(writer.classData(descriptor));
+        }
+
+        @Nonnull
+        Code ldc2(long value) {
+            return op(0x14).index(writer.longConstant(value));
+        }
+
+        @Nonnull
+        private Code index(int index) {
+            bytes.write(index >>> 8);
+            bytes.write(index);
+            return this;
+        }
+    }
+
+    private interface EntryWriter {
+
+        void write(@Nonnull DataOutputStream out) throws IOException;
+    }
+}
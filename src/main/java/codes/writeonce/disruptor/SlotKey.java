@@ -2,9 +2,22 @@ package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
 
+/**
+ * Side data slot of the entries, see {@link Slots}.
+ */
 public interface SlotKey<T> {
 
+    /**
+     * @return initial value of the slot of a new entry
+     */
     T init();
 
+    /**
+     * Called as the entry is cleaned for reuse. With {@link Slots#Slots(java.util.Set, boolean) compiled} slots, only
+     * called for the slots {@link Slot#set set} since the last clean: a value changed in place after {@link Slot#get}
+     * is only cleaned if it is set again.
+     *
+     * @return value of the slot for the next event
+     */
     T clean(@Nonnull T value);
 }
@@ -0,0 +1,17 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Slot values of an entry, swapped between entries as a whole. Laid out by {@link Slots} either as an array or, when
+ * compiled, as a generated class with a field per slot.
+ */
+public abstract class SlotValues {
+
+    /**
+     * Bit per slot index set since the last clean, tracked by the compiled layout only.
+     */
+    long dirty;
+
+    SlotValues() {
+        // empty
+    }
+}
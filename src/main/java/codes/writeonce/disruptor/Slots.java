@@ -1,12 +1,19 @@
 package codes.writeonce.disruptor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Side data of the entries, a value per {@link SlotKey}. By default the values are kept in an array. Compiled, they
+ * are kept in the fields of a class generated for the slot set, a slot access being a field load.
+ */
 public final class Slots {
 
     @Nonnull
@@ -15,16 +22,38 @@ public final class Slots {
     @Nonnull
     private final Map<SlotKey<?>, Slot<?>> slotMap;
 
+    @Nullable
+    private final MethodHandle valuesConstructor;
+
     public Slots(@Nonnull Set<SlotKey<?>> slotKeys) {
+        this(slotKeys, false);
+    }
+
+    /**
+     * Compiled slots are only {@link SlotKey#clean cleaned} if {@link Slot#set set} since the last clean, so a value
+     * changed in place through {@link Slot#get} has to be set again to be reset for the next event.
+     *
+     * @param compiled whether to generate a class for the slot set, at most {@value Long#SIZE} slots
+     */
+    public Slots(@Nonnull Set<SlotKey<?>> slotKeys, boolean compiled) {
 
         final var size = slotKeys.size();
-        this.slots = new Slot[size];
         this.slotMap = new HashMap<>(size);
-        for (final var slotKey : slotKeys) {
-            final var i = slotMap.size();
-            final var slot = new Slot<>(slotKey, i);
-            this.slots[i] = slot;
-            this.slotMap.put(slotKey, slot);
+        if (compiled) {
+            final var result = SlotCompiler.compile(new ArrayList<>(slotKeys));
+            this.slots = result.slots();
+            this.valuesConstructor = result.valuesConstructor();
+        } else {
+            this.slots = new Slot[size];
+            this.valuesConstructor = null;
+            var i = 0;
+            for (final var slotKey : slotKeys) {
+                this.slots[i] = new ArraySlot<>(slotKey, i);
+                i++;
+            }
+        }
+        for (final var slot : slots) {
+            this.slotMap.put(slot.key, slot);
         }
     }
 
@@ -35,19 +64,37 @@ public final class Slots {
     }
 
     @Nonnull
-    public Object[] init() {
+    public SlotValues init() {
 
-        final var values = new Object[slots.length];
+        final SlotValues values;
+        if (valuesConstructor == null) {
+            values = new ArraySlotValues(slots.length);
+        } else {
+            try {
+                values = (SlotValues) valuesConstructor.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
         for (final var slot : slots) {
             slot.init(values);
         }
         return values;
     }
 
-    public void clean(@Nonnull Object[] values) {
+    public void clean(@Nonnull SlotValues values) {
 
-        for (final var slot : slots) {
-            slot.clean(values);
+        if (valuesConstructor == null) {
+            for (final var slot : slots) {
+                slot.clean(values);
+            }
+        } else {
+            var dirty = values.dirty;
+            values.dirty = 0;
+            while (dirty != 0) {
+                slots[Long.numberOfTrailingZeros(dirty)].clean(values);
+                dirty &= dirty - 1;
+            }
         }
     }
 }
@@ -0,0 +1,15 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+
+/**
+ * Complete snapshot: every part listed in the {@link SnapshotStore} has been written.
+ */
+public record Snapshot(long id, @Nonnull Path directory) {
+
+    @Nonnull
+    public Path part(@Nonnull String name) {
+        return directory.resolve(name);
+    }
+}
@@ -0,0 +1,22 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Asks every stage to snapshot its state as of this event. All stages see it at the same sequence of the main ring,
+ * so their snapshots are consistent with each other. Get the id from {@link SnapshotStore#nextId()}.
+ * <p>
+ * Every stage with state saves a part of its own, registered with the store, as it handles the event; the main worker
+ * does so in {@link AbstractMainWorker#snapshot(SnapshotEvent, SnapshotStore)}. A restart loads every part of the
+ * latest complete snapshot before replaying the journal from {@link JournalWorker#journalSegment(Snapshot)} on.
+ */
+public class SnapshotEvent extends AbstractEvent {
+
+    private final long id;
+
+    public SnapshotEvent(long id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
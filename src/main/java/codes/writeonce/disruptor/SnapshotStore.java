@@ -0,0 +1,171 @@
+package codes.writeonce.disruptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Directory of snapshots, one subdirectory per snapshot id holding a file per part. Parts are written by a single
+ * background thread, each to a temporary file first; once every part of an id is in place a {@value #COMPLETE} marker
+ * is added, and only snapshots with the marker are ever loaded.
+ */
+public final class SnapshotStore implements AutoCloseable {
+
+    private static final String COMPLETE = "complete";
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("\\d{20}");
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Nonnull
+    private final Path directory;
+
+    @Nonnull
+    private final Set<String> parts;
+
+    @Nonnull
+    private final AtomicLong lastId;
+
+    @Nonnull
+    private final ExecutorService executor;
+
+    /**
+     * Parts written so far per incomplete snapshot id, used by the writer thread only.
+     */
+    @Nonnull
+    private final Map<Long, Set<String>> written = new HashMap<>();
+
+    /**
+     * @param parts names of the parts every snapshot consists of, one per participating stage
+     */
+    public SnapshotStore(@Nonnull Path directory, @Nonnull Set<String> parts) throws IOException {
+
+        if (parts.isEmpty() || parts.contains(COMPLETE)) {
+            throw new IllegalArgumentException();
+        }
+
+        this.directory = directory;
+        this.parts = Set.copyOf(parts);
+
+        Files.createDirectories(directory);
+        var last = -1L;
+        try (var files = Files.list(directory)) {
+            for (final var file : (Iterable<Path>) files::iterator) {
+                final var name = file.getFileName().toString();
+                if (SNAPSHOT_NAME.matcher(name).matches()) {
+                    last = Math.max(last, Long.parseLong(name));
+                }
+            }
+        }
+        this.lastId = new AtomicLong(last);
+
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            final var thread = new Thread(r, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return id for a new {@link SnapshotEvent}, greater than any in the store
+     */
+    public long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Writes a part of a snapshot in the background.
+     */
+    public void save(long id, @Nonnull String part, @Nonnull SnapshotWriter writer) {
+
+        if (!parts.contains(part)) {
+            throw new IllegalArgumentException();
+        }
+
+        executor.execute(() -> {
+            try {
+                final var snapshotDirectory = Files.createDirectories(snapshotPath(id));
+                write(snapshotDirectory.resolve(part), writer);
+                final var done = written.computeIfAbsent(id, k -> new HashSet<>());
+                done.add(part);
+                if (done.size() == parts.size()) {
+                    written.remove(id);
+                    write(snapshotDirectory.resolve(COMPLETE), out -> {
+                        // empty
+                    });
+                    logger.info("Snapshot {} complete", id);
+                }
+            } catch (Throwable e) {
+                logger.error("Failed to write part {} of snapshot {}", part, id, e);
+            }
+        });
+    }
+
+    /**
+     * @return the complete snapshot with the greatest id, if any
+     */
+    @Nullable
+    public Snapshot latest() throws IOException {
+
+        var last = -1L;
+        try (var files = Files.list(directory)) {
+            for (final var file : (Iterable<Path>) files::iterator) {
+                final var name = file.getFileName().toString();
+                if (SNAPSHOT_NAME.matcher(name).matches() && Files.exists(file.resolve(COMPLETE))) {
+                    last = Math.max(last, Long.parseLong(name));
+                }
+            }
+        }
+        return last < 0 ? null : new Snapshot(last, snapshotPath(last));
+    }
+
+    /**
+     * Waits for the parts already submitted to be written.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            logger.error("Snapshot writer did not complete");
+        }
+    }
+
+    @Nonnull
+    private Path snapshotPath(long id) {
+        return directory.resolve(String.format("%020d", id));
+    }
+
+    private static void write(@Nonnull Path path, @Nonnull SnapshotWriter writer) throws IOException {
+
+        final var temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            final var out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            writer.write(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,15 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a stage's state captured when the stage handled a {@link SnapshotEvent}. Runs on the {@link SnapshotStore}
+ * thread while the stage goes on handling entries, so it may only read what the stage captured on its own thread then:
+ * a copy, or a version of state the stage keeps copy-on-write and never changes in place.
+ */
+public interface SnapshotWriter {
+
+    void write(@Nonnull OutputStream out) throws IOException;
+}
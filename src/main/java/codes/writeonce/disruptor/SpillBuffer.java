@@ -0,0 +1,143 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded overflow stage in front of {@code queue2}: a {@link Sender} puts an event here instead of parking when the
+ * ring is full, and keeps doing so while the buffer is not empty. Holders are preallocated and swap their slots with
+ * the {@code queue1} entries, same as {@code queue2} holders.
+ * <p>
+ * Each spilled entry is marked with the {@code queue2} sequence the ring was full at, and the main worker moves it to
+ * {@code queue1} only once everything before that sequence has been taken from {@code queue2}, so events of one
+ * producer keep their order. Many producers, one consumer: the main worker.
+ */
+public final class SpillBuffer<T> {
+
+    @Nonnull
+    private final MultiProducerRing ring;
+
+    @Nonnull
+    private final Thread thread;
+
+    @Nonnull
+    private final EventHolder<T>[] holders;
+
+    /**
+     * {@code queue2} sequence each entry goes after.
+     */
+    @Nonnull
+    private final long[] markers;
+
+    @Nonnull
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public SpillBuffer(int capacityBits, @Nonnull Slots slots, @Nonnull DisruptorThread thread) {
+
+        this.ring = new MultiProducerRing(capacityBits);
+        this.thread = thread.getThread();
+        this.holders = new EventHolder[ring.capacity];
+        for (int i = 0; i < ring.capacity; i++) {
+            holders[i] = new EventHolder<>(slots);
+        }
+        this.markers = new long[ring.capacity];
+    }
+
+    /**
+     * @return whether nothing is spilled, so a producer may use the ring again
+     */
+    public boolean isEmpty() {
+        return ring.size() == 0;
+    }
+
+    /**
+     * @param marker the {@code queue2} cursor, see {@link Sequencer#getCursor()}
+     * @return index of the claimed entry
+     * @throws RejectedExecutionException if the buffer is full
+     */
+    public long claim(long marker) {
+
+        final var index = ring.claim();
+        if (index < 0) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("Spill buffer is full");
+        }
+        markers[ring.position(index)] = marker;
+        return index;
+    }
+
+    @Nonnull
+    public EventHolder<T> get(long index) {
+        return holders[ring.position(index)];
+    }
+
+    public void publish(long index) {
+        ring.publish(index);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * @param sequence2 next {@code queue2} sequence to take
+     * @return number of {@code queue2} entries to take before the oldest spilled entry, {@link Long#MAX_VALUE} if
+     * nothing is spilled
+     */
+    public long limit(long sequence2) {
+
+        final var index = ring.head();
+        if (index == ring.tail()) {
+            return Long.MAX_VALUE;
+        }
+        if (!ring.isPublished(index)) {
+            // the marker is not known yet
+            return 0;
+        }
+        return Math.max(0, markers[ring.position(index)] - sequence2);
+    }
+
+    /**
+     * @param sequence2 next {@code queue2} sequence to take
+     * @return the oldest spilled entry if it is due before {@code sequence2}, to be passed to {@link #remove()}
+     */
+    @Nullable
+    public EventHolder<T> peek(long sequence2) {
+
+        final var index = ring.head();
+        final var i = ring.position(index);
+        if (!ring.isPublished(index) || markers[i] - sequence2 > 0) {
+            return null;
+        }
+        return holders[i];
+    }
+
+    /**
+     * Releases the entry returned by {@link #peek(long)}.
+     */
+    public void remove() {
+        ring.remove(1);
+    }
+
+    /**
+     * @return number of entries spilled and not taken yet
+     */
+    public int getDepth() {
+        return ring.size();
+    }
+
+    /**
+     * @return number of entries spilled since the start
+     */
+    public long getSpilledCount() {
+        return ring.tail();
+    }
+
+    /**
+     * @return number of events rejected because the buffer was full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,36 @@
+package codes.writeonce.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins for the given number of idle calls, then parks until a publisher wakes the consumer up.
+ */
+public final class SpinParkWaitStrategy implements WaitStrategy {
+
+    private final int spins;
+
+    public SpinParkWaitStrategy(int spins) {
+
+        if (spins < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.spins = spins;
+    }
+
+    @Override
+    public boolean isParking() {
+        return true;
+    }
+
+    @Override
+    public void idle(int idleCount, long nanos) {
+        if (idleCount <= spins) {
+            Thread.onSpinWait();
+        } else if (nanos == Long.MAX_VALUE) {
+            LockSupport.park();
+        } else {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Latency of one consuming stage, recorded by its thread as it handles each claimed entry: from the entry's
+ * {@code incomingNanos} (ingress) and from the moment the {@code upstream} stage handled the same sequence.
+ * <p>
+ * Stages stamp sequences in a ring of their own, written before they publish, so a downstream stage reads its
+ * upstream's stamp after claiming without any extra synchronization. The entries themselves are left untouched.
+ * Export by copying {@link #getIngress()} and {@link #getStage()} from any thread with
+ * {@link LatencyHistogram#copyTo(LatencyHistogram)}.
+ */
+public final class StageLatencyRecorder {
+
+    @Nonnull
+    private final String name;
+
+    @Nullable
+    private final StageLatencyRecorder upstream;
+
+    @Nonnull
+    private final long[] stamps;
+
+    private final int mask;
+
+    @Nonnull
+    private final LatencyHistogram ingress = new LatencyHistogram();
+
+    @Nonnull
+    private final LatencyHistogram stage = new LatencyHistogram();
+
+    /**
+     * @param ringBuffer ring buffer the stage consumes
+     * @param upstream   recorder of the stage this one is gated on, {@code null} to record ingress latency only
+     */
+    public StageLatencyRecorder(@Nonnull String name, @Nonnull AbstractRingBuffer ringBuffer,
+            @Nullable StageLatencyRecorder upstream) {
+        this.name = name;
+        this.upstream = upstream;
+        this.stamps = new long[ringBuffer.capacity()];
+        this.mask = ringBuffer.mask();
+    }
+
+    /**
+     * @param sequence      sequence of the entry being handled
+     * @param incomingNanos {@code incomingNanos} of the entry
+     * @param nanos         {@link System#nanoTime()} taken once per claimed batch
+     */
+    public void record(long sequence, long incomingNanos, long nanos) {
+
+        final var index = (int) sequence & mask;
+        ingress.record(nanos - incomingNanos);
+        if (upstream != null) {
+            stage.record(nanos - upstream.stamps[index]);
+        }
+        stamps[index] = nanos;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    public LatencyHistogram getIngress() {
+        return ingress;
+    }
+
+    /**
+     * @return latency from the upstream stage, empty without one
+     */
+    @Nonnull
+    public LatencyHistogram getStage() {
+        return stage;
+    }
+}
@@ -0,0 +1,21 @@
+package codes.writeonce.disruptor;
+
+import java.time.Instant;
+
+/**
+ * Wall clock. The {@link Instant} it reads does not escape, so it is normally allocated on the stack.
+ */
+public final class SystemEpochClock implements EpochClock {
+
+    public static final SystemEpochClock INSTANCE = new SystemEpochClock();
+
+    private SystemEpochClock() {
+        // empty
+    }
+
+    @Override
+    public long epochNanos() {
+        final var now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
@@ -0,0 +1,31 @@
+package codes.writeonce.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Polls by sleeping for a fixed period. Publishers don't need to wake the consumer up, so latency is bounded by the
+ * period only.
+ */
+public final class TimedParkWaitStrategy implements WaitStrategy {
+
+    private final long periodNanos;
+
+    public TimedParkWaitStrategy(long periodNanos) {
+
+        if (periodNanos < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.periodNanos = periodNanos;
+    }
+
+    @Override
+    public boolean isParking() {
+        return false;
+    }
+
+    @Override
+    public void idle(int idleCount, long nanos) {
+        LockSupport.parkNanos(Math.min(periodNanos, nanos));
+    }
+}
@@ -0,0 +1,352 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel of the main worker: {@value #LEVELS} levels of {@value #SLOTS} buckets covering the whole
+ * {@code long} range of ticks, each level with an occupancy bitmap, so finding the next due bucket never walks empty
+ * ones. A timer is placed at the level of the highest {@value #SLOT_BITS}-bit group its deadline differs from the current
+ * tick in, and moved a level down whenever the wheel reaches its bucket.
+ * <p>
+ * Apart from scheduling and cancelling, used by the owner thread only. Timers scheduled by other threads are handed
+ * over through a lock-free stack and picked up on the next {@link #advance(long)}; timers cancelled by other threads stay
+ * in their buckets until due and are dropped then.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    private static final int NONE = -1;
+
+    /**
+     * Bucket index of the timers that are due but not taken yet.
+     */
+    private static final int EXPIRED = LEVELS * SLOTS;
+
+    private static final int PENDING = 0;
+
+    private static final int CANCELLED = 1;
+
+    private static final int FIRED = 2;
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Timer.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Nonnull
+    private final Thread thread;
+
+    private final long tickNanos;
+
+    private final long startNanos;
+
+    @Nonnull
+    private final Timer<T>[] heads;
+
+    @Nonnull
+    private final long[] occupied = new long[LEVELS];
+
+    @Nonnull
+    private final AtomicReference<Timer<T>> handedOver = new AtomicReference<>();
+
+    @Nullable
+    private Timer<T> expiredTail;
+
+    private long currentTick;
+
+    /**
+     * Timers in buckets, cancelled by other threads ones included.
+     */
+    private int size;
+
+    /**
+     * @param thread     owner thread
+     * @param tickNanos  resolution, timers never fire before their deadline but may fire up to a tick later
+     * @param startNanos {@link System#nanoTime()} the wheel starts at
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(@Nonnull Thread thread, long tickNanos, long startNanos) {
+
+        if (tickNanos < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.thread = thread;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.heads = new Timer[EXPIRED + 1];
+    }
+
+    /**
+     * Schedules the event to be taken by {@link #nextExpired()} once {@link #advance(long)} reaches the deadline.
+     * Constant time; from a thread other than the owner the owner is unparked to pick the timer up.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} to fire at
+     */
+    @Nonnull
+    public Timer<T> schedule(long deadlineNanos, @Nonnull T event) {
+
+        final var delta = deadlineNanos - startNanos;
+        final var timer = new Timer<>(this, delta <= 0 ? 0 : (delta - 1) / tickNanos + 1, event);
+
+        if (Thread.currentThread() == thread) {
+            insert(timer);
+            size++;
+        } else {
+            while (true) {
+                final var top = handedOver.get();
+                timer.next = top;
+                if (handedOver.compareAndSet(top, timer)) {
+                    break;
+                }
+            }
+            LockSupport.unpark(thread);
+        }
+        return timer;
+    }
+
+    /**
+     * @return whether there are no timers to wait for
+     */
+    public boolean isEmpty() {
+        return size == 0 && handedOver.get() == null;
+    }
+
+    /**
+     * Picks up the timers scheduled by other threads and moves the ones due by {@code nanos} to the expired list.
+     *
+     * @param nanos current {@link System#nanoTime()}
+     */
+    public void advance(long nanos) {
+
+        var timer = handedOver.getAndSet(null);
+        while (timer != null) {
+            final var next = timer.next;
+            timer.next = null;
+            if ((int) STATE.getAcquire(timer) == PENDING) {
+                insert(timer);
+                size++;
+            }
+            timer = next;
+        }
+
+        final var delta = nanos - startNanos;
+        final var nowTick = delta <= 0 ? 0 : delta / tickNanos;
+
+        while (true) {
+            final var tick = nextTick();
+            if (tick == Long.MAX_VALUE || tick > nowTick) {
+                if (nowTick > currentTick) {
+                    currentTick = nowTick;
+                }
+                return;
+            }
+            currentTick = tick;
+            // higher levels first, so that their timers may land in the lower level buckets due at the same tick
+            for (int level = LEVELS - 1; level >= 0; level--) {
+                final var slot = (int) (currentTick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+                if ((occupied[level] & (1L << slot)) != 0) {
+                    final var bucket = level * SLOTS + slot;
+                    var t = heads[bucket];
+                    heads[bucket] = null;
+                    occupied[level] &= ~(1L << slot);
+                    while (t != null) {
+                        final var next = t.next;
+                        t.prev = null;
+                        t.next = null;
+                        if ((int) STATE.getAcquire(t) == PENDING) {
+                            insert(t);
+                        } else {
+                            t.bucket = NONE;
+                            size--;
+                        }
+                        t = next;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return event of the next due timer, removed from the wheel, or {@code null} if none
+     */
+    @Nullable
+    public T nextExpired() {
+
+        while (true) {
+            final var timer = heads[EXPIRED];
+            if (timer == null) {
+                return null;
+            }
+            unlink(timer);
+            size--;
+            if (STATE.compareAndSet(timer, PENDING, FIRED)) {
+                final var event = timer.event;
+                timer.event = null;
+                return event;
+            }
+        }
+    }
+
+    /**
+     * @param nanos current {@link System#nanoTime()}
+     * @return nanoseconds until the next bucket is due, zero if some timers are already due, {@link Long#MAX_VALUE} if
+     * there are no timers
+     */
+    public long nanosToNextExpiry(long nanos) {
+
+        if (heads[EXPIRED] != null || handedOver.get() != null) {
+            return 0;
+        }
+
+        final var tick = nextTick();
+        if (tick == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        final var delta = nanos - startNanos;
+        final var ticks = tick - (delta <= 0 ? 0 : delta / tickNanos);
+        if (ticks <= 0) {
+            return 0;
+        }
+        if (ticks > Long.MAX_VALUE / tickNanos) {
+            return Long.MAX_VALUE;
+        }
+        return ticks * tickNanos - (delta <= 0 ? 0 : delta % tickNanos);
+    }
+
+    private long nextTick() {
+
+        // a timer is due no earlier than all the timers of the lower levels
+        for (int level = 0; level < LEVELS; level++) {
+            final var shift = level * SLOT_BITS;
+            final var slot = (int) (currentTick >>> shift) & (SLOTS - 1);
+            final var mask = occupied[level] & (-1L << slot);
+            if (mask != 0) {
+                final var upperShift = shift + SLOT_BITS;
+                final var upper = upperShift >= Long.SIZE ? 0 : currentTick >>> upperShift << upperShift;
+                return upper | (long) Long.numberOfTrailingZeros(mask) << shift;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void insert(@Nonnull Timer<T> timer) {
+
+        final var deadline = timer.deadline;
+        if (deadline <= currentTick) {
+            timer.bucket = EXPIRED;
+            timer.prev = expiredTail;
+            if (expiredTail == null) {
+                heads[EXPIRED] = timer;
+            } else {
+                expiredTail.next = timer;
+            }
+            expiredTail = timer;
+        } else {
+            final var level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(deadline ^ currentTick)) / SLOT_BITS;
+            final var slot = (int) (deadline >>> (level * SLOT_BITS)) & (SLOTS - 1);
+            final var bucket = level * SLOTS + slot;
+            final var head = heads[bucket];
+            timer.bucket = bucket;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            heads[bucket] = timer;
+            occupied[level] |= 1L << slot;
+        }
+    }
+
+    private void unlink(@Nonnull Timer<T> timer) {
+
+        final var bucket = timer.bucket;
+        final var prev = timer.prev;
+        final var next = timer.next;
+        if (prev == null) {
+            heads[bucket] = next;
+            if (next == null && bucket != EXPIRED) {
+                occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+            }
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            if (bucket == EXPIRED) {
+                expiredTail = prev;
+            }
+        } else {
+            next.prev = prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = NONE;
+    }
+
+    public static final class Timer<T> {
+
+        @Nonnull
+        private final TimingWheel<T> wheel;
+
+        private final long deadline;
+
+        @Nullable
+        private T event;
+
+        @SuppressWarnings("unused")
+        private volatile int state;
+
+        /**
+         * Bucket the timer is linked into, {@link #NONE} if not in the wheel yet or any more.
+         */
+        private int bucket = NONE;
+
+        /**
+         * Next timer in the bucket, or in the stack of timers handed over by other threads.
+         */
+        @Nullable
+        private Timer<T> next;
+
+        @Nullable
+        private Timer<T> prev;
+
+        private Timer(@Nonnull TimingWheel<T> wheel, long deadline, @Nonnull T event) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.event = event;
+        }
+
+        /**
+         * Constant time; on the owner thread the timer leaves the wheel at once.
+         *
+         * @return {@code false} if the timer has already fired or been cancelled
+         */
+        public boolean cancel() {
+
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            if (Thread.currentThread() == wheel.thread && bucket != NONE) {
+                wheel.unlink(this);
+                wheel.size--;
+                event = null;
+            }
+            return true;
+        }
+    }
+}
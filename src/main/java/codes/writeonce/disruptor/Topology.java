@@ -0,0 +1,331 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Declarative wiring of the {@link Processor}s of one ring buffer. The head stage writes the entries and gets them back
+ * once every sink stage, one no other stage runs after, is done with them; every other stage runs after the stages it
+ * is declared {@link Stage#after(Stage...) after}, or after the head if none.
+ * <p>
+ * {@link #build()} checks the dependencies for cycles and drops the ones implied by others, so that a stage declared to
+ * run after both another stage and that stage's upstream only polls the sequence of the former.
+ */
+public final class Topology {
+
+    @Nonnull
+    private final AbstractRingBuffer ringBuffer;
+
+    @Nonnull
+    private final List<Stage> stages = new ArrayList<>();
+
+    @Nullable
+    private Stage head;
+
+    private boolean built;
+
+    public Topology(@Nonnull AbstractRingBuffer ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Nonnull
+    public Stage head(@Nonnull String name, @Nonnull DisruptorThread thread) {
+        return head(name, thread, ParkingWaitStrategy.INSTANCE);
+    }
+
+    @Nonnull
+    public Stage head(@Nonnull String name, @Nonnull DisruptorThread thread, @Nonnull WaitStrategy waitStrategy) {
+
+        if (head != null) {
+            throw new IllegalStateException();
+        }
+
+        head = stage(name, thread, waitStrategy);
+        return head;
+    }
+
+    @Nonnull
+    public Stage stage(@Nonnull String name, @Nonnull DisruptorThread thread, @Nonnull Stage... after) {
+        return stage(name, thread, ParkingWaitStrategy.INSTANCE).after(after);
+    }
+
+    @Nonnull
+    public Stage stage(@Nonnull String name, @Nonnull DisruptorThread thread, @Nonnull WaitStrategy waitStrategy) {
+
+        if (built) {
+            throw new IllegalStateException();
+        }
+        for (final var stage : stages) {
+            if (stage.name.equals(name)) {
+                throw new IllegalArgumentException("Duplicate stage: " + name);
+            }
+        }
+
+        final var stage = new Stage(this, name, thread, waitStrategy);
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Creates the barriers and processors of all the stages.
+     *
+     * @throws IllegalStateException if there is no head stage, no other stage, or the dependencies make a cycle
+     */
+    public void build() {
+
+        if (built || head == null || stages.size() < 2) {
+            throw new IllegalStateException();
+        }
+
+        final var order = sort();
+
+        // every stage a stage runs after, directly or not
+        final var upstream = new HashMap<Stage, Set<Stage>>();
+        upstream.put(head, Set.of());
+        for (final var stage : order) {
+            final var all = new LinkedHashSet<Stage>();
+            for (final var dependency : stage.dependencies()) {
+                all.add(dependency);
+                all.addAll(upstream.get(dependency));
+            }
+            upstream.put(stage, all);
+        }
+
+        final var sinks = new HashSet<>(order);
+        for (final var stage : order) {
+            final var dependencies = stage.dependencies();
+            for (final var dependency : dependencies) {
+                sinks.remove(dependency);
+                if (implied(dependency, dependencies, upstream)) {
+                    stage.redundant.add(dependency);
+                } else {
+                    stage.gating.add(dependency);
+                }
+            }
+        }
+        for (final var stage : stages) {
+            if (sinks.contains(stage)) {
+                head.gating.add(stage);
+            }
+        }
+
+        for (final var stage : stages) {
+            stage.barrier = ringBuffer.newBarrier(0);
+        }
+        for (final var stage : stages) {
+            final var barrier = stage.barrier;
+            assert barrier != null;
+            stage.processor = ringBuffer.newProcessor(stage.thread, stage.waitStrategy, barrier,
+                    stage.gating.stream().map(Stage::getBarrier).toArray(Barrier[]::new));
+        }
+
+        built = true;
+    }
+
+    /**
+     * @return one line per stage with the stages it polls, and the declared dependencies dropped as implied
+     */
+    @Nonnull
+    public String dump() {
+
+        if (!built) {
+            throw new IllegalStateException();
+        }
+
+        final var builder = new StringBuilder();
+        for (final var stage : stages) {
+            builder.append(stage.name);
+            if (stage == head) {
+                builder.append(" (head)");
+            }
+            builder.append(" <- ");
+            appendNames(builder, stage.gating);
+            if (!stage.redundant.isEmpty()) {
+                builder.append(" [implied: ");
+                appendNames(builder, stage.redundant);
+                builder.append(']');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the stages but the head, each after all its dependencies
+     */
+    @Nonnull
+    private List<Stage> sort() {
+
+        final var remaining = new HashMap<Stage, Integer>();
+        final var dependents = new HashMap<Stage, List<Stage>>();
+        final var ready = new ArrayDeque<Stage>();
+
+        for (final var stage : stages) {
+            if (stage == head) {
+                continue;
+            }
+            var count = 0;
+            for (final var dependency : stage.dependencies()) {
+                if (dependency != head) {
+                    dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(stage);
+                    count++;
+                }
+            }
+            if (count == 0) {
+                ready.add(stage);
+            } else {
+                remaining.put(stage, count);
+            }
+        }
+
+        final var order = new ArrayList<Stage>(stages.size() - 1);
+        while (!ready.isEmpty()) {
+            final var stage = ready.poll();
+            order.add(stage);
+            for (final var dependent : dependents.getOrDefault(stage, List.of())) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    remaining.remove(dependent);
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (!remaining.isEmpty()) {
+            final var builder = new StringBuilder("Cycle through stages: ");
+            appendNames(builder, stages.stream().filter(remaining::containsKey).toList());
+            throw new IllegalStateException(builder.toString());
+        }
+        return order;
+    }
+
+    private static boolean implied(@Nonnull Stage dependency, @Nonnull Set<Stage> dependencies,
+            @Nonnull Map<Stage, Set<Stage>> upstream) {
+
+        for (final var other : dependencies) {
+            if (other != dependency && upstream.get(other).contains(dependency)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendNames(@Nonnull StringBuilder builder, @Nonnull Iterable<Stage> stages) {
+
+        var first = true;
+        for (final var stage : stages) {
+            if (!first) {
+                builder.append(", ");
+            }
+            builder.append(stage.name);
+            first = false;
+        }
+    }
+
+    public static final class Stage {
+
+        @Nonnull
+        private final Topology topology;
+
+        @Nonnull
+        private final String name;
+
+        @Nonnull
+        private final DisruptorThread thread;
+
+        @Nonnull
+        private final WaitStrategy waitStrategy;
+
+        @Nonnull
+        private final Set<Stage> after = new LinkedHashSet<>();
+
+        @Nonnull
+        private final Set<Stage> gating = new LinkedHashSet<>();
+
+        @Nonnull
+        private final Set<Stage> redundant = new LinkedHashSet<>();
+
+        @Nullable
+        private Barrier barrier;
+
+        @Nullable
+        private Processor processor;
+
+        private Stage(@Nonnull Topology topology, @Nonnull String name, @Nonnull DisruptorThread thread,
+                @Nonnull WaitStrategy waitStrategy) {
+            this.topology = topology;
+            this.name = name;
+            this.thread = thread;
+            this.waitStrategy = waitStrategy;
+        }
+
+        /**
+         * Makes the stage process entries only after the given stages are done with them.
+         */
+        @Nonnull
+        public Stage after(@Nonnull Stage... stages) {
+
+            if (topology.built || this == topology.head) {
+                throw new IllegalStateException();
+            }
+            for (final var stage : stages) {
+                if (stage.topology != topology) {
+                    throw new IllegalArgumentException();
+                }
+                if (stage == this) {
+                    throw new IllegalStateException("Cycle through stages: " + name);
+                }
+                after.add(stage);
+            }
+            return this;
+        }
+
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return barrier the stage publishes to, available once built
+         */
+        @Nonnull
+        public Barrier getBarrier() {
+
+            if (barrier == null) {
+                throw new IllegalStateException();
+            }
+            return barrier;
+        }
+
+        /**
+         * @return processor of the stage, available once built
+         */
+        @Nonnull
+        public Processor getProcessor() {
+
+            if (processor == null) {
+                throw new IllegalStateException();
+            }
+            return processor;
+        }
+
+        @Nonnull
+        private Set<Stage> dependencies() {
+            final var head = topology.head;
+            assert head != null;
+            return after.isEmpty() ? Set.of(head) : after;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
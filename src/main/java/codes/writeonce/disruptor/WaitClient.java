@@ -16,8 +16,18 @@ public final class WaitClient {
     @Nullable
     private WaitClient next;
 
+    /**
+     * Wakes up every registered waiter. With nobody registered this is a single read of {@code head}.
+     * <p>
+     * The publication this follows must be a volatile store: a waiter registers with a CAS on {@code head} and then
+     * re-reads the published value, so either the waiter sees the publication or this sees the waiter.
+     */
     public static void wakeupAll(@Nonnull AtomicReference<WaitClient> head) {
 
+        if (head.get() == null) {
+            return;
+        }
+
         var next = head.getAndSet(null);
         while (next != null) {
             next = next.wakeup();
@@ -0,0 +1,20 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Defines what a consumer does when {@code claimBlocking()} finds nothing to process.
+ */
+public interface WaitStrategy {
+
+    /**
+     * @return {@code true} if the consumer may park, so publishers of the barriers it waits on must wake it up
+     */
+    boolean isParking();
+
+    /**
+     * Idles the calling consumer thread after an empty {@code claimBlocking()}.
+     *
+     * @param idleCount number of consecutive idle calls, starting with 1
+     * @param nanos     maximum time to idle, {@link Long#MAX_VALUE} if not bounded
+     */
+    void idle(int idleCount, long nanos);
+}
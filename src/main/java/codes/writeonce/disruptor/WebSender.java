@@ -10,4 +10,11 @@ public interface WebSender<T> {
     void send(long incomingNanos, @Nonnull T event, @Nonnull NettyRequestContext requestContext);
 
     void send(long incomingNanos, @Nonnull T event, @Nonnull WebSocketProtocolHandler webSocketProtocolHandler);
+
+    /**
+     * Sends a payload preallocated per entry, see {@link Sender#send(long, Slot, PayloadTranslator, Object, Object)}.
+     */
+    <E extends T, A, B> void send(long incomingNanos, @Nonnull Slot<E> payloadSlot,
+            @Nonnull PayloadTranslator<E, A, B> translator, A arg0, B arg1,
+            @Nonnull WebSocketProtocolHandler webSocketProtocolHandler);
 }
@@ -0,0 +1,157 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+import java.util.stream.Stream;
+
+/**
+ * One thread of a {@link WorkerPool}. It always holds exactly one sequence taken from the pool's work sequence, possibly
+ * ahead of what the upstream barriers have published yet, so an idle processor never holds the pool's published
+ * sequence back: everything below the sequence it holds is done.
+ */
+public final class WorkProcessor {
+
+    @Nonnull
+    private final WorkerPool pool;
+
+    @Nonnull
+    private final Sequence workSequence;
+
+    /**
+     * Sequence held, or a lower bound of it while taking the next one.
+     */
+    @Nonnull
+    private final Sequence completed;
+
+    @Nonnull
+    private final Sequence[] sequences;
+
+    @Nonnull
+    private final WaitClientWrapper[] waitClients;
+
+    @Nonnull
+    private final WaitStrategy waitStrategy;
+
+    private final boolean parking;
+
+    private long sequence;
+
+    private long gatingSequenceCache;
+
+    private int idleCount;
+
+    WorkProcessor(@Nonnull WorkerPool pool, @Nonnull Sequence completed, @Nonnull Barrier[] barriers,
+            @Nonnull Thread thread, @Nonnull WaitStrategy waitStrategy) {
+        this.pool = pool;
+        this.workSequence = pool.workSequence;
+        this.completed = completed;
+        this.sequences = Stream.of(barriers).map(e -> e.sequence).toArray(Sequence[]::new);
+        this.waitClients = Stream.of(barriers).map(e -> new WaitClientWrapper(e.waitListHead, new WaitClient(thread)))
+                .toArray(WaitClientWrapper[]::new);
+        this.waitStrategy = waitStrategy;
+        this.parking = waitStrategy.isParking();
+        if (parking) {
+            for (final var barrier : barriers) {
+                barrier.parking = true;
+            }
+        }
+        take();
+        this.gatingSequenceCache = sequence;
+    }
+
+    /**
+     * @return one if the entry at {@link #getSequence()} has been published upstream, zero otherwise
+     */
+    public int claim() {
+
+        if (gatingSequenceCache - sequence > 0) {
+            return 1;
+        }
+
+        var min = sequences[0].get();
+        for (int i = 1, n = sequences.length; i < n; i++) {
+            final var value = sequences[i].get();
+            if (value - min < 0) {
+                min = value;
+            }
+        }
+        gatingSequenceCache = min;
+        return min - sequence > 0 ? 1 : 0;
+    }
+
+    /**
+     * Claims like {@link #claim()}, but when nothing is available a parking consumer also registers for a wake-up, so
+     * it may call {@link #idle()} next.
+     */
+    public int claimBlocking() {
+
+        if (!parking) {
+            final var n = claim();
+            if (n != 0) {
+                idleCount = 0;
+            }
+            return n;
+        }
+
+        if (gatingSequenceCache - sequence > 0) {
+            idleCount = 0;
+            return 1;
+        }
+
+        long min = 0;
+        for (int i = 0, n = sequences.length; i < n; i++) {
+            var value = sequences[i].get();
+            if (value - sequence <= 0) {
+                waitClients[i].await();
+                value = sequences[i].get();
+                if (value - sequence <= 0) {
+                    return 0;
+                }
+            }
+            if (i == 0 || value - min < 0) {
+                min = value;
+            }
+        }
+        gatingSequenceCache = min;
+        idleCount = 0;
+        return 1;
+    }
+
+    /**
+     * @return sequence of the entry to handle after a successful claim
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Idles according to the wait strategy after {@link #claimBlocking()} returned zero.
+     */
+    public void idle() {
+        waitStrategy.idle(++idleCount, Long.MAX_VALUE);
+    }
+
+    @Nonnull
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Marks the entry at {@link #getSequence()} as handled and takes the next one.
+     */
+    public void publish() {
+        take();
+        pool.publish();
+    }
+
+    private void take() {
+
+        while (true) {
+            final var next = workSequence.get();
+            completed.set(next);
+            if (workSequence.compareAndSet(next, next + 1)) {
+                sequence = next;
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package codes.writeonce.disruptor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * One pipeline stage consumed by several threads: each entry is handled by exactly one {@link WorkProcessor}, which
+ * takes it from a shared work sequence. The stage publishes to {@code publisherBarrier} the lowest sequence still held
+ * by any of its processors, so downstream stages gate on it as on any other {@link Barrier}.
+ */
+public final class WorkerPool {
+
+    @Nonnull
+    private final Sequence publisherSequence;
+
+    @Nonnull
+    private final Barrier publisherBarrier;
+
+    /**
+     * First sequence not yet taken by any processor.
+     */
+    @Nonnull
+    final Sequence workSequence;
+
+    @Nonnull
+    private final Sequence[] completed;
+
+    @Nonnull
+    private final WorkProcessor[] processors;
+
+    public WorkerPool(@Nonnull Barrier publisherBarrier, @Nonnull Barrier[] barriers, @Nonnull Thread[] threads,
+            @Nonnull WaitStrategy waitStrategy) {
+
+        if (threads.length == 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.publisherSequence = publisherBarrier.sequence;
+        this.publisherBarrier = publisherBarrier;
+        this.workSequence = new Sequence(publisherSequence.get());
+        this.completed = new Sequence[threads.length];
+        this.processors = new WorkProcessor[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            completed[i] = new Sequence(publisherSequence.get());
+            processors[i] = new WorkProcessor(this, completed[i], barriers, threads[i], waitStrategy);
+        }
+    }
+
+    @Nonnull
+    public WorkProcessor getProcessor(int index) {
+        return processors[index];
+    }
+
+    public int size() {
+        return processors.length;
+    }
+
+    void publish() {
+
+        var min = completed[0].get();
+        for (int i = 1, n = completed.length; i < n; i++) {
+            final var value = completed[i].get();
+            if (value - min < 0) {
+                min = value;
+            }
+        }
+
+        var current = publisherSequence.get();
+        while (min - current > 0) {
+            if (publisherSequence.compareAndSet(current, min)) {
+                publisherBarrier.wakeup();
+                break;
+            }
+            current = publisherSequence.get();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package codes.writeonce.disruptor;
+
+/**
+ * Spins for the given number of idle calls, then yields the core on every next one. Never parks.
+ */
+public final class YieldingWaitStrategy implements WaitStrategy {
+
+    private final int spins;
+
+    public YieldingWaitStrategy(int spins) {
+
+        if (spins < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.spins = spins;
+    }
+
+    @Override
+    public boolean isParking() {
+        return false;
+    }
+
+    @Override
+    public void idle(int idleCount, long nanos) {
+        if (idleCount <= spins) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+}
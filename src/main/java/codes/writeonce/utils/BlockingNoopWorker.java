@@ -5,7 +5,6 @@ import codes.writeonce.disruptor.Processor;
 import codes.writeonce.disruptor.Worker;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.locks.LockSupport;
 
 public class BlockingNoopWorker implements Worker {
 
@@ -31,7 +30,7 @@ public class BlockingNoopWorker implements Worker {
                 break;
             }
             if (n == 0) {
-                LockSupport.park();
+                processor.idle();
             } else {
                 sequence += n;
                 processor.publish(sequence);
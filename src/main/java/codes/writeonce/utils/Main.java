@@ -1,24 +1,47 @@
 package codes.writeonce.utils;
 
+import codes.writeonce.disruptor.AbstractMainWorker;
+import codes.writeonce.disruptor.CoreList;
 import codes.writeonce.disruptor.Disruptor;
 import codes.writeonce.disruptor.DisruptorEntry;
+import codes.writeonce.disruptor.DisruptorThread;
 import codes.writeonce.disruptor.DisruptorWebSender;
 import codes.writeonce.disruptor.Event;
+import codes.writeonce.disruptor.EpochClock;
 import codes.writeonce.disruptor.EventHolder;
+import codes.writeonce.disruptor.EventQueue;
+import codes.writeonce.disruptor.JournalReader;
+import codes.writeonce.disruptor.JournalWorker;
+import codes.writeonce.disruptor.JournalWriter;
 import codes.writeonce.disruptor.MainWorker;
+import codes.writeonce.disruptor.MainWorkerOptions;
+import codes.writeonce.disruptor.NanoTimeEpochClock;
+import codes.writeonce.disruptor.PaddedDisruptorEntry;
+import codes.writeonce.disruptor.PaddedEventHolder;
 import codes.writeonce.disruptor.QueueSender;
 import codes.writeonce.disruptor.Sender;
 import codes.writeonce.disruptor.ShutdownEvent;
+import codes.writeonce.disruptor.Slot;
 import codes.writeonce.disruptor.Slots;
+import codes.writeonce.disruptor.SnapshotEvent;
+import codes.writeonce.disruptor.SnapshotStore;
+import codes.writeonce.disruptor.SpillBuffer;
+import codes.writeonce.disruptor.SystemEpochClock;
 import codes.writeonce.disruptor.TimerEvent;
+import codes.writeonce.disruptor.Topology;
 import codes.writeonce.disruptor.WebSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.nio.file.Path;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -30,55 +53,82 @@ public class Main {
 
     private static final AtomicLong SEQUENCE = new AtomicLong();
 
+    /**
+     * Disruptor threads of an app instance.
+     */
+    private static final int THREADS = 6;
+
     public static void main(String[] args) throws Exception {
 
         final var id = SEQUENCE.incrementAndGet();
 
-        final var slotKeys = new HashSet<>(asList(NettyRequestSlotKey.INSTANCE, NettyWebSocketSlotKey.INSTANCE));
+        final var slotKeys = new HashSet<>(asList(NettyRequestSlotKey.INSTANCE, NettyWebSocketSlotKey.INSTANCE,
+                WebsocketMessageEvent.PAYLOAD_KEY));
 
-        final var slots = new Slots(slotKeys);
+        final var slots = new Slots(slotKeys, Boolean.getBoolean("slots.compiled"));
 
         final var disruptor = new Disruptor();
 
-        final var ringBuffer1 = disruptor.newRingBuffer(3, () -> new DisruptorEntry<Event>(slots));
-        final var ringBuffer2 = disruptor.newRingBuffer(3, () -> new EventHolder<Event>(slots));
+        final var padded = Boolean.getBoolean("ring.padded");
+        final var ringBuffer1 = disruptor.<DisruptorEntry<Event>>newRingBuffer(3,
+                padded ? () -> new PaddedDisruptorEntry<>(slots) : () -> new DisruptorEntry<>(slots));
+        final var ringBuffer2 = disruptor.<EventHolder<Event>>newRingBuffer(3,
+                padded ? () -> new PaddedEventHolder<>(slots) : () -> new EventHolder<>(slots));
 
-        final var barrier1 = ringBuffer1.newBarrier(0);
-        final var barrier2 = ringBuffer1.newBarrier(0);
-        final var barrier3 = ringBuffer1.newBarrier(0);
-        final var barrier4 = ringBuffer1.newBarrier(0);
-        final var barrier5 = ringBuffer1.newBarrier(0);
-        final var barrier6 = ringBuffer1.newBarrier(0);
         final var barrier7 = ringBuffer2.newMultiBarrier(0);
         final var barrier8 = ringBuffer2.newBarrier(0);
 
-        final var thread1 = disruptor.newThread(r -> new Thread(r, "app" + id + ".main"));
-        final var thread2 = disruptor.newThread(r -> new Thread(r, "app" + id + ".service"));
-        final var thread3 = disruptor.newThread(r -> new Thread(r, "app" + id + ".eventPersister"));
-        final var thread4 = disruptor.newThread(r -> new Thread(r, "app" + id + ".clientConnector"));
-        final var thread5 = disruptor.newThread(r -> new Thread(r, "app" + id + ".exchangeConnectors"));
-        final var thread6 = disruptor.newThread(r -> new Thread(r, "app" + id + ".miscConnectors"));
-
-        final var processor1 = ringBuffer1.newProcessor(thread1, barrier1, barrier3, barrier4, barrier5, barrier6);
-        final var processor2 = ringBuffer1.newProcessor(thread2, barrier2, barrier1);
-        final var processor3 = ringBuffer1.newProcessor(thread3, barrier3, barrier1);
-        final var processor4 = ringBuffer1.newProcessor(thread4, barrier4, barrier2);
-        final var processor5 = ringBuffer1.newProcessor(thread5, barrier5, barrier2);
-        final var processor6 = ringBuffer1.newProcessor(thread6, barrier6, barrier2);
+        final var cpuList = System.getProperty("cpu.list");
+        final var cores = cpuList == null ? null : new CoreList(cpuList);
+        if (cores != null && cores.remaining() < THREADS) {
+            throw new IllegalArgumentException(
+                    "cpu.list " + cpuList + " has " + cores.remaining() + " CPUs, one per thread needs " + THREADS);
+        }
+
+        final var thread1 = newThread(disruptor, cores, "app" + id + ".main");
+        final var thread2 = newThread(disruptor, cores, "app" + id + ".service");
+        final var thread3 = newThread(disruptor, cores, "app" + id + ".eventPersister");
+        final var thread4 = newThread(disruptor, cores, "app" + id + ".clientConnector");
+        final var thread5 = newThread(disruptor, cores, "app" + id + ".exchangeConnectors");
+        final var thread6 = newThread(disruptor, cores, "app" + id + ".miscConnectors");
+
+        final var topology = new Topology(ringBuffer1);
+        final var stage1 = topology.head("main", thread1);
+        final var stage2 = topology.stage("service", thread2);
+        final var stage3 = topology.stage("eventPersister", thread3);
+        final var stage4 = topology.stage("clientConnector", thread4, stage2);
+        final var stage5 = topology.stage("exchangeConnectors", thread5, stage2);
+        final var stage6 = topology.stage("miscConnectors", thread6, stage2);
+        topology.build();
+        LOGGER.info("Queue1 topology:\n{}", topology.dump());
+
+        final var processor1 = stage1.getProcessor();
+        final var processor2 = stage2.getProcessor();
+        final var processor3 = stage3.getProcessor();
+        final var processor4 = stage4.getProcessor();
+        final var processor5 = stage5.getProcessor();
+        final var processor6 = stage6.getProcessor();
         final var processor7 = ringBuffer2.newMultiProcessor(barrier7, barrier8);
         final var processor8 = ringBuffer2.newPostMultiProcessor(thread1, barrier8, barrier7);
 
+        // unbounded unless sized: senders to a bounded queue wait for room
+        final var queuedEventsBits = Integer.getInteger("queued.events.bits");
+        final var eventQueue = queuedEventsBits == null ? null : new EventQueue<Event>(disruptor, queuedEventsBits);
         final var queuedEvents = new ConcurrentLinkedQueue<QueueSender.Wrapper<Event>>();
-        final var queueSender = new QueueSender<>(queuedEvents, thread1);
+        final var queueSender = eventQueue == null
+                ? new QueueSender<>(queuedEvents, thread1)
+                : new QueueSender<>(eventQueue, thread1);
 
-        final var sender = new Sender<>(disruptor, processor7, ringBuffer2);
+        final var spillBits = Integer.getInteger("queue2.spill.bits");
+        final var spillBuffer = spillBits == null ? null : new SpillBuffer<Event>(spillBits, slots, thread1);
+        final var sender = new Sender<>(disruptor, processor7, ringBuffer2, spillBuffer);
 
         final var requestSlot = slots.slot(NettyRequestSlotKey.INSTANCE);
         final var websocketSlot = slots.slot(NettyWebSocketSlotKey.INSTANCE);
         final var webSender = new DisruptorWebSender<>(sender, requestSlot, websocketSlot);
 
         final var connector = new NettyConnector(
-                new WebsocketMessageFactoryImpl(webSender),
+                new WebsocketMessageFactoryImpl(webSender, slots.slot(WebsocketMessageEvent.PAYLOAD_KEY)),
                 new SimpleMapping().get("/",
                         new SimpleRequestHandlerFactory<>(webSender, new AtomicBoolean(true), ResponseFilter.EMPTY,
                                 rc -> new NettyEvent())),
@@ -88,20 +138,55 @@ public class Main {
                 Integer.getInteger("backend.port")
         );
 
-        disruptor.addWorker(thread1, new MainWorker<>(
-                disruptor,
-                thread1,
-                slots,
-                processor1,
-                processor8,
-                ringBuffer1,
-                ringBuffer2,
-                TimerEvent::new,
-                queuedEvents
-        ));
+        final EpochClock clock = switch (System.getProperty("main.clock", "instant")) {
+            case "instant" -> null;
+            case "system" -> SystemEpochClock.INSTANCE;
+            case "nanoTime" -> new NanoTimeEpochClock();
+            default -> throw new IllegalArgumentException();
+        };
+
+        final var journalDirectory = System.getProperty("journal.dir");
+        final var eventCodec = new MainEventCodec();
+        final var snapshotDirectory = System.getProperty("snapshot.dir");
+        // the main worker and the event persister are the only stages keeping state across events
+        final var snapshotStore = journalDirectory == null || snapshotDirectory == null
+                ? null
+                : new SnapshotStore(Path.of(snapshotDirectory),
+                        Set.of(AbstractMainWorker.SNAPSHOT_PART, JournalWorker.SNAPSHOT_PART));
+        final var snapshot = snapshotStore == null ? null : snapshotStore.latest();
+        final var journalReader = journalDirectory == null
+                ? null
+                : new JournalReader<>(Path.of(journalDirectory), eventCodec,
+                        snapshot == null ? 0 : JournalWorker.journalSegment(snapshot));
+
+        final var mainWorkerOptions = new MainWorkerOptions<Event>()
+                .setSpillBuffer(spillBuffer)
+                .setClock(clock)
+                .setJournal(journalReader)
+                .setSnapshotStore(snapshotStore)
+                .setSnapshot(snapshot);
+        if (eventQueue == null) {
+            mainWorkerOptions.setQueuedEvents(queuedEvents);
+        } else {
+            mainWorkerOptions.setEventQueue(eventQueue);
+        }
+        disruptor.addWorker(thread1, new MainWorker<>(disruptor, thread1, slots, processor1, processor8, ringBuffer1,
+                ringBuffer2, TimerEvent::new, mainWorkerOptions));
 
         disruptor.addWorker(thread2, new BlockingNoopWorker(disruptor, processor2));
-        disruptor.addWorker(thread3, new BlockingNoopWorker(disruptor, processor3));
+        if (journalDirectory == null) {
+            disruptor.addWorker(thread3, new BlockingNoopWorker(disruptor, processor3));
+        } else {
+            disruptor.addWorker(thread3, new JournalWorker<>(
+                    disruptor,
+                    ringBuffer1,
+                    processor3,
+                    new JournalWriter<>(Path.of(journalDirectory), Long.getLong("journal.segment.size", 1L << 28),
+                            eventCodec),
+                    Long.getLong("journal.sync.interval.nanos", 0L),
+                    snapshotStore
+            ));
+        }
         disruptor.addWorker(thread4, new NettyWorker(disruptor, ringBuffer1, sender, slots, processor4));
         disruptor.addWorker(thread5, new BlockingNoopWorker(disruptor, processor5));
         disruptor.addWorker(thread6, new BlockingNoopWorker(disruptor, processor6));
@@ -112,32 +197,79 @@ public class Main {
 
         connector.start();
 
+        final var snapshotInterval = Long.getLong("snapshot.interval.seconds", 0L);
+        final var snapshotScheduler = snapshotStore == null || snapshotInterval <= 0
+                ? null
+                : Executors.newSingleThreadScheduledExecutor(r -> {
+                    final var thread = new Thread(r, "app" + id + ".snapshotScheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        if (snapshotScheduler != null) {
+            snapshotScheduler.scheduleWithFixedDelay(() -> {
+                // a task that throws is never run again
+                try {
+                    sender.send(System.nanoTime(), new SnapshotEvent(snapshotStore.nextId()));
+                } catch (RejectedExecutionException e) {
+                    LOGGER.warn("Snapshot skipped: {}", e.getMessage());
+                }
+            }, snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+        }
+
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
                 LOGGER.info("Stopping event sources");
+                if (snapshotScheduler != null) {
+                    snapshotScheduler.shutdownNow();
+                }
                 connector.shutdown().get();
                 LOGGER.info("Sending ShutdownEvent");
                 sender.send(System.nanoTime(), new ShutdownEvent());
                 disruptor.close();
+                if (snapshotStore != null) {
+                    snapshotStore.close();
+                }
             } catch (Throwable e) {
                 LOGGER.info("Failed to shutdown gracefully", e);
             }
         }));
     }
 
+    /**
+     * Pins the thread to a core of its own when a CPU list is given.
+     */
+    @Nonnull
+    private static DisruptorThread newThread(
+            @Nonnull Disruptor disruptor,
+            @Nullable CoreList cores,
+            @Nonnull String name
+    ) {
+        if (cores == null) {
+            return disruptor.newThread(r -> new Thread(r, name));
+        }
+        return disruptor.newThread(r -> new Thread(r, name), cores.next());
+    }
+
     private static class WebsocketMessageFactoryImpl implements WebsocketMessageFactory {
 
         @Nonnull
         private final WebSender<Event> sender;
 
-        public WebsocketMessageFactoryImpl(@Nonnull WebSender<Event> sender) {
+        @Nonnull
+        private final Slot<WebsocketMessageEvent> messageSlot;
+
+        public WebsocketMessageFactoryImpl(@Nonnull WebSender<Event> sender,
+                @Nonnull Slot<WebsocketMessageEvent> messageSlot) {
             this.sender = sender;
+            this.messageSlot = messageSlot;
         }
 
         @Override
         public void websocketMessageEvent(@Nonnull WebSocketProtocolHandler webSocketProtocolHandler,
                 long websocketId, @Nonnull String text) {
-            sender.send(System.nanoTime(), new WebsocketMessageEvent(websocketId, text), webSocketProtocolHandler);
+            // the id is read back from the handler, a long argument would be boxed
+            sender.send(System.nanoTime(), messageSlot, (event, handler, message) -> event.set(handler.websocketId,
+                    message), webSocketProtocolHandler, text, webSocketProtocolHandler);
         }
 
         @Override
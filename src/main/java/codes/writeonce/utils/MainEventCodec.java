@@ -0,0 +1,112 @@
+package codes.writeonce.utils;
+
+import codes.writeonce.disruptor.Event;
+import codes.writeonce.disruptor.EventCodec;
+import codes.writeonce.disruptor.ShutdownEvent;
+import codes.writeonce.disruptor.TimerEvent;
+
+import javax.annotation.Nonnull;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_CHAR_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_INT_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_LONG_UNALIGNED;
+
+/**
+ * Journal form of the events of {@link Main}: an int type tag, then the websocket id and the message text as UTF-16
+ * code units where the event has them.
+ */
+public class MainEventCodec implements EventCodec<Event> {
+
+    private static final int NETTY = 0;
+    private static final int TIMER = 1;
+    private static final int SHUTDOWN = 2;
+    private static final int WEBSOCKET_CONNECTED = 3;
+    private static final int WEBSOCKET_DISCONNECTED = 4;
+    private static final int WEBSOCKET_MESSAGE = 5;
+    private static final int WEBSOCKET_MESSAGE_SENT = 6;
+    private static final int WEBSOCKET_MESSAGE_NOT_SENT = 7;
+
+    @Override
+    public int encode(@Nonnull Event event, @Nonnull MemorySegment segment, long offset, long limit) {
+
+        if (event instanceof NettyEvent) {
+            return encode(NETTY, segment, offset, limit);
+        } else if (event instanceof TimerEvent) {
+            return encode(TIMER, segment, offset, limit);
+        } else if (event instanceof ShutdownEvent) {
+            return encode(SHUTDOWN, segment, offset, limit);
+        } else if (event instanceof final WebsocketConnectedEvent e) {
+            return encode(WEBSOCKET_CONNECTED, e.getWebsocketId(), segment, offset, limit);
+        } else if (event instanceof final WebsocketDisconnectedEvent e) {
+            return encode(WEBSOCKET_DISCONNECTED, e.getWebsocketId(), segment, offset, limit);
+        } else if (event instanceof final WebsocketMessageSentEvent e) {
+            return encode(WEBSOCKET_MESSAGE_SENT, e.getWebsocketId(), segment, offset, limit);
+        } else if (event instanceof final WebsocketMessageNotSentEvent e) {
+            return encode(WEBSOCKET_MESSAGE_NOT_SENT, e.getWebsocketId(), segment, offset, limit);
+        } else if (event instanceof final WebsocketMessageEvent e) {
+            final var text = e.getText();
+            final var length = text.length();
+            final var size = 16 + length * 2L;
+            if (size > limit) {
+                return -1;
+            }
+            segment.set(JAVA_INT_UNALIGNED, offset, WEBSOCKET_MESSAGE);
+            segment.set(JAVA_LONG_UNALIGNED, offset + 4, e.getWebsocketId());
+            segment.set(JAVA_INT_UNALIGNED, offset + 12, length);
+            for (int i = 0; i < length; i++) {
+                segment.set(JAVA_CHAR_UNALIGNED, offset + 16 + i * 2L, text.charAt(i));
+            }
+            return (int) size;
+        } else {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Event decode(@Nonnull MemorySegment segment, long offset, int length) {
+
+        final var type = segment.get(JAVA_INT_UNALIGNED, offset);
+        return switch (type) {
+            case NETTY -> new NettyEvent();
+            case TIMER -> new TimerEvent();
+            case SHUTDOWN -> new ShutdownEvent();
+            case WEBSOCKET_CONNECTED -> new WebsocketConnectedEvent(websocketId(segment, offset));
+            case WEBSOCKET_DISCONNECTED -> new WebsocketDisconnectedEvent(websocketId(segment, offset));
+            case WEBSOCKET_MESSAGE_SENT -> new WebsocketMessageSentEvent(websocketId(segment, offset));
+            case WEBSOCKET_MESSAGE_NOT_SENT -> new WebsocketMessageNotSentEvent(websocketId(segment, offset));
+            case WEBSOCKET_MESSAGE -> {
+                final var chars = new char[segment.get(JAVA_INT_UNALIGNED, offset + 12)];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = segment.get(JAVA_CHAR_UNALIGNED, offset + 16 + i * 2L);
+                }
+                yield new WebsocketMessageEvent(websocketId(segment, offset), new String(chars));
+            }
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    private static int encode(int type, @Nonnull MemorySegment segment, long offset, long limit) {
+
+        if (limit < 4) {
+            return -1;
+        }
+        segment.set(JAVA_INT_UNALIGNED, offset, type);
+        return 4;
+    }
+
+    private static int encode(int type, long websocketId, @Nonnull MemorySegment segment, long offset, long limit) {
+
+        if (limit < 12) {
+            return -1;
+        }
+        segment.set(JAVA_INT_UNALIGNED, offset, type);
+        segment.set(JAVA_LONG_UNALIGNED, offset + 4, websocketId);
+        return 12;
+    }
+
+    private static long websocketId(@Nonnull MemorySegment segment, long offset) {
+        return segment.get(JAVA_LONG_UNALIGNED, offset + 4);
+    }
+}
@@ -26,7 +26,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.util.Date;
-import java.util.concurrent.locks.LockSupport;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.ACCESS_CONTROL_ALLOW_CREDENTIALS;
 import static io.netty.handler.codec.http.HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN;
@@ -92,10 +91,15 @@ public class NettyWorker implements Worker {
                 break;
             }
             if (n == 0) {
-                LockSupport.park();
+                processor.idle();
             } else {
                 do {
                     final var entry = ringBuffer.get(sequence);
+                    if (entry.replay) {
+                        // already answered before the restart
+                        sequence++;
+                        continue;
+                    }
                     final var event = entry.event;
                     if (event instanceof ShutdownEvent) {
                         sequence += n;
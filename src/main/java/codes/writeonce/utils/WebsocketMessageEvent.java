@@ -1,21 +1,32 @@
 package codes.writeonce.utils;
 
 import codes.writeonce.disruptor.AbstractEvent;
+import codes.writeonce.disruptor.PayloadKey;
 
 import javax.annotation.Nonnull;
 
 public class WebsocketMessageEvent extends AbstractEvent {
 
-    private final long websocketId;
+    /**
+     * Preallocated per entry, filled in place on the WebSocket message path.
+     */
+    public static final PayloadKey<WebsocketMessageEvent> PAYLOAD_KEY =
+            new PayloadKey<>(WebsocketMessageEvent::new, WebsocketMessageEvent::reset);
+
+    private long websocketId;
 
     @Nonnull
-    private final String text;
+    private String text;
 
     public WebsocketMessageEvent(long websocketId, @Nonnull String text) {
         this.websocketId = websocketId;
         this.text = text;
     }
 
+    private WebsocketMessageEvent() {
+        this(0, "");
+    }
+
     public long getWebsocketId() {
         return websocketId;
     }
@@ -24,4 +35,14 @@ public class WebsocketMessageEvent extends AbstractEvent {
     public String getText() {
         return text;
     }
+
+    void set(long websocketId, @Nonnull String text) {
+        this.websocketId = websocketId;
+        this.text = text;
+    }
+
+    private void reset() {
+        websocketId = 0;
+        text = "";
+    }
 }
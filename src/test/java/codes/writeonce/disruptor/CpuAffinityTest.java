@@ -0,0 +1,50 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CpuAffinityTest {
+
+    @Test
+    public void parse() {
+
+        final var cpus = CpuAffinity.parse(" 0, 2,4 - 7,,");
+        assertEquals("{0, 2, 4, 5, 6, 7}", cpus.toString());
+        assertEquals("{1023}", CpuAffinity.parse("1023").toString());
+        assertTrue(CpuAffinity.parse("").isEmpty());
+        for (final var list : List.of("1024", "0-1024", "3-2", "-1", "a", "1-b", "1-2-3")) {
+            try {
+                CpuAffinity.parse(list);
+                fail(list);
+            } catch (IllegalArgumentException ignore) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void coreList() {
+
+        final var cores = new CoreList("1,3-4");
+        assertEquals(3, cores.remaining());
+        assertEquals("{1}", cores.next().toString());
+        assertEquals("{3}", cores.next().toString());
+        assertTrue(cores.hasNext());
+        assertEquals(1, cores.remaining());
+        assertEquals("{4}", cores.next().toString());
+        assertFalse(cores.hasNext());
+        assertEquals(0, cores.remaining());
+        try {
+            cores.next();
+            fail();
+        } catch (IllegalStateException ignore) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EpochClockTest {
+
+    @Test
+    public void entry() {
+
+        final var slots = new Slots(Set.of());
+        final var entry = new DisruptorEntry<Object>(slots);
+
+        // the Instant mode
+        final var timestamp = Instant.ofEpochSecond(5, 7);
+        entry.timestamp = timestamp;
+        assertSame(timestamp, entry.getTimestamp());
+        assertEquals(5_000_000_007L, entry.getEpochNanos());
+        entry.clean(slots);
+        assertNull(entry.timestamp);
+        assertEquals(0, entry.timestampNanos);
+
+        // the epoch nanoseconds mode
+        entry.timestampNanos = 5_000_000_007L;
+        assertEquals(timestamp, entry.getTimestamp());
+        assertEquals(5_000_000_007L, entry.getEpochNanos());
+        entry.clean(slots);
+        assertNull(entry.timestamp);
+        assertEquals(0, entry.timestampNanos);
+        assertEquals(Instant.EPOCH, entry.getTimestamp());
+        assertEquals(0, entry.getEpochNanos());
+    }
+
+    @Test
+    public void clocks() {
+
+        final var clock = new NanoTimeEpochClock();
+        final var before = SystemEpochClock.INSTANCE.epochNanos();
+        final var t1 = clock.epochNanos();
+        final var t2 = clock.epochNanos();
+        final var after = SystemEpochClock.INSTANCE.epochNanos();
+        assertTrue(t2 >= t1);
+        // a second of slack for wall clock adjustments
+        assertTrue(t1 > before - 1_000_000_000L);
+        assertTrue(t2 < after + 1_000_000_000L);
+    }
+
+    @Test
+    public void mainWorker() throws Exception {
+
+        final var directory = Files.createTempDirectory("journal");
+        try {
+            try (var journal = new JournalWriter<>(directory, 4096, JournalTest.LongCodec.INSTANCE)) {
+                for (long i = 0; i < 10; i++) {
+                    journal.append(1000 + i, i);
+                }
+            }
+
+            final var a = new Disruptor();
+            final var t1 = a.newThread(Thread::new);
+            final var t2 = a.newThread(Thread::new);
+            final var slots = new Slots(Set.of());
+            final var queue1 = a.newRingBuffer(2, () -> new DisruptorEntry<Object>(slots));
+            final var queue2 = a.newRingBuffer(2, () -> new EventHolder<Object>(slots));
+            final var barrier1 = queue1.newBarrier(0);
+            final var barrier2 = queue1.newBarrier(0);
+            final var barrier3 = queue2.newMultiBarrier(0);
+            final var barrier4 = queue2.newBarrier(0);
+            final var processor = queue1.newProcessor(t2, barrier2, barrier1);
+            final var eventQueue = new EventQueue<Object>(a, 4);
+            final var sender = new QueueSender<>(eventQueue, t1);
+            final var timestamps = new ConcurrentLinkedQueue<Long>();
+            // goes back after a while, entries must not
+            final var clockTicks = new AtomicLong(100);
+            final EpochClock clock = () -> {
+                final var tick = clockTicks.incrementAndGet();
+                return tick < 110 ? 1000 + tick : 1005;
+            };
+
+            a.addWorker(t1, new MainWorker<>(a, t1, slots, queue1.newProcessor(t1, barrier1, barrier2),
+                    queue2.newPostMultiProcessor(t1, barrier4, barrier3), queue1, queue2, () -> -1L,
+                    new MainWorkerOptions<Object>().setEventQueue(eventQueue).setClock(clock)
+                            .setJournal(new JournalReader<>(directory, JournalTest.LongCodec.INSTANCE))));
+            a.addWorker(t2, () -> {
+                long sequence = 0;
+                while (true) {
+                    var n = processor.claimBlocking();
+                    if (a.isTerminate()) {
+                        break;
+                    }
+                    if (n == 0) {
+                        processor.idle();
+                    } else {
+                        do {
+                            final var entry = queue1.get(sequence++);
+                            assertNull(entry.timestamp);
+                            assertEquals(entry.timestampNanos, entry.getTimestamp().getNano());
+                            if (entry.replay) {
+                                assertEquals(1000 + (long) entry.event, entry.timestampNanos);
+                            }
+                            timestamps.add(entry.timestampNanos);
+                        } while (--n != 0);
+                        processor.publish(sequence);
+                    }
+                }
+            });
+            a.start();
+
+            for (long i = 0; i < 20; i++) {
+                sender.send(0, i);
+            }
+            final var deadline = System.nanoTime() + 60_000_000_000L;
+            while (timestamps.size() != 30) {
+                assertTrue(System.nanoTime() - deadline < 0);
+                Thread.sleep(1);
+            }
+            a.terminate();
+            a.close();
+
+            long previous = 0;
+            for (final var timestamp : timestamps) {
+                assertTrue(timestamp >= previous);
+                previous = timestamp;
+            }
+        } finally {
+            JournalTest.delete(directory);
+        }
+    }
+}
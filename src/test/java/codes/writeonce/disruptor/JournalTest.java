@@ -0,0 +1,424 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.lang.foreign.ValueLayout.JAVA_LONG_UNALIGNED;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JournalTest {
+
+    @Test
+    public void segments() throws Exception {
+
+        final var directory = Files.createTempDirectory("journal");
+        try {
+            try (var journal = new JournalWriter<>(directory, 4096, LongCodec.INSTANCE)) {
+                for (long i = 0; i < 200; i++) {
+                    journal.append(1000 + i, i);
+                }
+                assertTrue(journal.isDirty());
+                journal.force();
+                assertFalse(journal.isDirty());
+            }
+            assertEquals(2, JournalWriter.lastSegmentIndex(directory));
+
+            // 24-byte records: 170 per segment, then the end of segment mark
+            try (var arena = Arena.ofConfined()) {
+                final var segment0 = map(JournalWriter.segmentPath(directory, 0), arena);
+                assertEquals(24, segment0.get(JAVA_INT, 0));
+                assertEquals(1000, segment0.get(JAVA_LONG, 8));
+                assertEquals(0, segment0.get(JAVA_LONG_UNALIGNED, JournalWriter.HEADER_SIZE));
+                assertEquals(169, segment0.get(JAVA_LONG_UNALIGNED, 169 * 24 + JournalWriter.HEADER_SIZE));
+                assertEquals(JournalWriter.END_OF_SEGMENT, segment0.get(JAVA_INT, 170 * 24));
+
+                final var segment1 = map(JournalWriter.segmentPath(directory, 1), arena);
+                assertEquals(170, segment1.get(JAVA_LONG_UNALIGNED, JournalWriter.HEADER_SIZE));
+                assertEquals(0, segment1.get(JAVA_INT, 30 * 24));
+
+                assertEquals(0, map(JournalWriter.segmentPath(directory, 2), arena).get(JAVA_INT, 0));
+            }
+
+            try (var ignore = new JournalWriter<>(directory, 4096, LongCodec.INSTANCE)) {
+                assertEquals(4, JournalWriter.lastSegmentIndex(directory));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void worker() throws Exception {
+
+        final var directory = Files.createTempDirectory("journal");
+        try {
+            final var a = new Disruptor();
+            final var t = a.newThread(Thread::new);
+            final var slots = new Slots(Set.of());
+            final var ringBuffer = a.newRingBuffer(2, () -> new DisruptorEntry<Object>(slots));
+            final var barrier1 = ringBuffer.newBarrier(0);
+            final var barrier2 = ringBuffer.newBarrier(0);
+            final var producer = new Processor(barrier1, new Barrier[]{barrier2}, Thread.currentThread(),
+                    BusySpinWaitStrategy.INSTANCE);
+            final var journal = new JournalWriter<>(directory, 4096, LongCodec.INSTANCE);
+            a.addWorker(t, new JournalWorker<>(a, ringBuffer, ringBuffer.newProcessor(t, barrier2, barrier1), journal,
+                    0));
+            a.start();
+
+            long available = ringBuffer.capacity();
+            for (long sequence = 0; sequence < 100; ) {
+                if (available == 0) {
+                    available += producer.claim();
+                    continue;
+                }
+                final var entry = ringBuffer.get(sequence);
+                entry.event = sequence;
+                available--;
+                producer.publish(++sequence);
+            }
+            while (barrier2.sequence.get() != 100) {
+                Thread.onSpinWait();
+            }
+            a.terminate();
+            a.close();
+
+            try (var arena = Arena.ofConfined()) {
+                final var segment = map(JournalWriter.segmentPath(directory, 0), arena);
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(i, segment.get(JAVA_LONG_UNALIGNED, i * 24 + JournalWriter.HEADER_SIZE));
+                }
+                assertEquals(0, segment.get(JAVA_INT, 100 * 24));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void reader() throws Exception {
+
+        final var directory = Files.createTempDirectory("journal");
+        try {
+            try (var reader = new JournalReader<>(directory, LongCodec.INSTANCE)) {
+                assertFalse(reader.next());
+            }
+            try (var journal = new JournalWriter<>(directory, 4096, LongCodec.INSTANCE)) {
+                for (long i = 0; i < 200; i++) {
+                    journal.append(1000 + i, i);
+                }
+            }
+            try (var journal = new JournalWriter<>(directory, 4096, LongCodec.INSTANCE)) {
+                journal.append(2000, 200L);
+            }
+
+            try (var reader = new JournalReader<>(directory, LongCodec.INSTANCE)) {
+                for (long i = 0; i < 201; i++) {
+                    assertTrue(reader.next());
+                    assertEquals(i, (long) reader.event());
+                    assertEquals(i == 200 ? 2000 : 1000 + i, reader.timestamp());
+                }
+                assertFalse(reader.next());
+                assertFalse(reader.next());
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void replay() throws Exception {
+
+        final var directory = Files.createTempDirectory("journal");
+        try {
+            try (var journal = new JournalWriter<>(directory, 4096, LongCodec.INSTANCE)) {
+                for (long i = 0; i < 50; i++) {
+                    journal.append(1000 + i, i);
+                }
+            }
+
+            final var a = new Disruptor();
+            final var t1 = a.newThread(Thread::new);
+            final var t2 = a.newThread(Thread::new);
+            final var slots = new Slots(Set.of());
+            final var queue1 = a.newRingBuffer(2, () -> new DisruptorEntry<Object>(slots));
+            final var queue2 = a.newRingBuffer(2, () -> new EventHolder<Object>(slots));
+            final var barrier1 = queue1.newBarrier(0);
+            final var barrier2 = queue1.newBarrier(0);
+            final var barrier3 = queue2.newMultiBarrier(0);
+            final var barrier4 = queue2.newBarrier(0);
+            final var processor = queue1.newProcessor(t2, barrier2, barrier1);
+            final var replayed = new ConcurrentLinkedQueue<Long>();
+
+            a.addWorker(t1, new MainWorker<>(a, t1, slots, queue1.newProcessor(t1, barrier1, barrier2),
+                    queue2.newPostMultiProcessor(t1, barrier4, barrier3), queue1, queue2, () -> -1L,
+                    new MainWorkerOptions<Object>().setQueuedEvents(new ConcurrentLinkedQueue<>())
+                            .setJournal(new JournalReader<>(directory, LongCodec.INSTANCE))));
+            a.addWorker(t2, () -> {
+                long sequence = 0;
+                while (true) {
+                    var n = processor.claimBlocking();
+                    if (a.isTerminate()) {
+                        break;
+                    }
+                    if (n == 0) {
+                        processor.idle();
+                    } else {
+                        do {
+                            final var entry = queue1.get(sequence++);
+                            assertTrue(entry.replay);
+                            final var event = (long) entry.event;
+                            assertEquals(1000 + event, entry.timestamp.getNano());
+                            replayed.add(event);
+                        } while (--n != 0);
+                        processor.publish(sequence);
+                    }
+                }
+            });
+            a.start();
+
+            final var deadline = System.nanoTime() + 60_000_000_000L;
+            while (replayed.size() != 50) {
+                assertTrue(System.nanoTime() - deadline < 0);
+                Thread.sleep(1);
+            }
+            a.terminate();
+            a.close();
+
+            long i = 0;
+            for (final var event : replayed) {
+                assertEquals(i++, (long) event);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+
+        final var journalDirectory = Files.createTempDirectory("journal");
+        final var snapshotDirectory = Files.createTempDirectory("snapshot");
+        try {
+            final var store = new SnapshotStore(snapshotDirectory, Set.of(JournalWorker.SNAPSHOT_PART));
+            assertNull(store.latest());
+            final var id = store.nextId();
+
+            final var a = new Disruptor();
+            final var t = a.newThread(Thread::new);
+            final var slots = new Slots(Set.of());
+            final var ringBuffer = a.newRingBuffer(2, () -> new DisruptorEntry<Object>(slots));
+            final var barrier1 = ringBuffer.newBarrier(0);
+            final var barrier2 = ringBuffer.newBarrier(0);
+            final var producer = new Processor(barrier1, new Barrier[]{barrier2}, Thread.currentThread(),
+                    BusySpinWaitStrategy.INSTANCE);
+            final var journal = new JournalWriter<>(journalDirectory, 4096, LongCodec.INSTANCE);
+            a.addWorker(t, new JournalWorker<>(a, ringBuffer, ringBuffer.newProcessor(t, barrier2, barrier1), journal,
+                    0, store));
+            a.start();
+
+            long available = ringBuffer.capacity();
+            for (long sequence = 0; sequence < 101; ) {
+                if (available == 0) {
+                    available += producer.claim();
+                    continue;
+                }
+                final var entry = ringBuffer.get(sequence);
+                entry.event = sequence == 50 ? new SnapshotEvent(id) : sequence;
+                available--;
+                producer.publish(++sequence);
+            }
+            while (barrier2.sequence.get() != 101) {
+                Thread.onSpinWait();
+            }
+            a.terminate();
+            a.close();
+            store.close();
+
+            final var snapshot = store.latest();
+            assertNotNull(snapshot);
+            assertEquals(id, snapshot.id());
+            assertEquals(1, JournalWorker.journalSegment(snapshot));
+
+            try (var reader = new JournalReader<>(journalDirectory, LongCodec.INSTANCE,
+                    JournalWorker.journalSegment(snapshot))) {
+                for (long i = 51; i < 101; i++) {
+                    assertTrue(reader.next());
+                    assertEquals(i, (long) reader.event());
+                }
+                assertFalse(reader.next());
+            }
+
+            final var store2 = new SnapshotStore(snapshotDirectory, Set.of("a", "b"));
+            final var id2 = store2.nextId();
+            assertTrue(id2 > id);
+            store2.save(id2, "a", out -> out.write(1));
+            store2.close();
+            assertEquals(id, store2.latest().id());
+        } finally {
+            delete(journalDirectory);
+            delete(snapshotDirectory);
+        }
+    }
+
+    @Test
+    public void mainWorkerSnapshot() throws Exception {
+
+        final var directory = Files.createTempDirectory("snapshot");
+        try {
+            final var store = new SnapshotStore(directory, Set.of(AbstractMainWorker.SNAPSHOT_PART));
+            final var id = store.nextId();
+            assertEquals(7, runSumming(store, null, 1L, 2L, new SnapshotEvent(id), 4L));
+            store.close();
+
+            final var snapshot = store.latest();
+            assertNotNull(snapshot);
+            assertEquals(id, snapshot.id());
+
+            final var store2 = new SnapshotStore(directory, Set.of(AbstractMainWorker.SNAPSHOT_PART));
+            assertEquals(11, runSumming(store2, snapshot, 8L));
+            store2.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static long runSumming(@Nonnull SnapshotStore store, @Nullable Snapshot snapshot, @Nonnull Object... events)
+            throws Exception {
+
+        final var a = new Disruptor();
+        final var t1 = a.newThread(Thread::new);
+        final var t2 = a.newThread(Thread::new);
+        final var slots = new Slots(Set.of());
+        final var queue1 = a.newRingBuffer(2, () -> new DisruptorEntry<Object>(slots));
+        final var queue2 = a.newRingBuffer(2, () -> new EventHolder<Object>(slots));
+        final var barrier1 = queue1.newBarrier(0);
+        final var barrier2 = queue1.newBarrier(0);
+        final var barrier3 = queue2.newMultiBarrier(0);
+        final var barrier4 = queue2.newBarrier(0);
+        final var processor = queue1.newProcessor(t2, barrier2, barrier1);
+        final var eventQueue = new EventQueue<Object>(a, 4);
+        final var sender = new QueueSender<>(eventQueue, t1);
+        final var handled = new AtomicLong();
+
+        final var worker = new SummingWorker(a, t1, slots, queue1.newProcessor(t1, barrier1, barrier2),
+                queue2.newPostMultiProcessor(t1, barrier4, barrier3), queue1, queue2, eventQueue, store, snapshot);
+        a.addWorker(t1, worker);
+        a.addWorker(t2, () -> {
+            long sequence = 0;
+            while (!a.isTerminate()) {
+                final var n = processor.claimBlocking();
+                if (n == 0) {
+                    processor.idle();
+                } else {
+                    sequence += n;
+                    handled.addAndGet(n);
+                    processor.publish(sequence);
+                }
+            }
+        });
+        a.start();
+
+        for (final var event : events) {
+            sender.send(0, event);
+        }
+        final var deadline = System.nanoTime() + 60_000_000_000L;
+        while (handled.get() != events.length) {
+            assertTrue(System.nanoTime() - deadline < 0);
+            Thread.sleep(1);
+        }
+        a.terminate();
+        a.close();
+        return worker.sum;
+    }
+
+    @Nonnull
+    private static MemorySegment map(@Nonnull Path path, @Nonnull Arena arena) throws Exception {
+        try (var channel = FileChannel.open(path, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+    }
+
+    static void delete(@Nonnull Path directory) throws Exception {
+        try (var files = Files.walk(directory)) {
+            for (final var file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static final class SummingWorker extends MainWorker<Object> {
+
+        private long sum;
+
+        SummingWorker(@Nonnull Disruptor disruptor, @Nonnull DisruptorThread thread, @Nonnull Slots slots,
+                @Nonnull Processor innerProcessor, @Nonnull PostMultiProcessor externalProcessor,
+                @Nonnull RingBuffer<DisruptorEntry<Object>> queue1, @Nonnull RingBuffer<EventHolder<Object>> queue2,
+                @Nonnull EventQueue<Object> eventQueue, @Nonnull SnapshotStore store, @Nullable Snapshot snapshot) {
+            super(disruptor, thread, slots, innerProcessor, externalProcessor, queue1, queue2, () -> -1L,
+                    new MainWorkerOptions<Object>().setEventQueue(eventQueue).setSnapshotStore(store)
+                            .setSnapshot(snapshot));
+        }
+
+        @Override
+        protected void postprocess(@Nonnull DisruptorEntry<Object> entry) {
+            if (entry.event instanceof final Long value) {
+                sum += value;
+            }
+        }
+
+        @Override
+        protected void snapshot(@Nonnull SnapshotEvent event, @Nonnull SnapshotStore store) {
+            final var captured = sum;
+            store.save(event.getId(), SNAPSHOT_PART, out -> new DataOutputStream(out).writeLong(captured));
+        }
+
+        @Override
+        protected void restore(@Nonnull Snapshot snapshot) throws IOException {
+            try (var in = new DataInputStream(Files.newInputStream(snapshot.part(SNAPSHOT_PART)))) {
+                sum = in.readLong();
+            }
+        }
+    }
+
+    static final class LongCodec implements EventCodec<Object> {
+
+        static final LongCodec INSTANCE = new LongCodec();
+
+        @Override
+        public int encode(@Nonnull Object event, @Nonnull MemorySegment segment, long offset, long limit) {
+
+            if (limit < 8) {
+                return -1;
+            }
+            segment.set(JAVA_LONG_UNALIGNED, offset, (long) event);
+            return 8;
+        }
+
+        @Nonnull
+        @Override
+        public Object decode(@Nonnull MemorySegment segment, long offset, int length) {
+            return segment.get(JAVA_LONG_UNALIGNED, offset);
+        }
+    }
+}
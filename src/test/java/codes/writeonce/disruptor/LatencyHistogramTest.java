@@ -0,0 +1,90 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets() {
+
+        for (long value = 0; value < 1 << 20; value++) {
+            final var index = LatencyHistogram.index(value);
+            final var highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 32);
+            assertEquals(index, LatencyHistogram.index(highest));
+        }
+        assertEquals(Long.MAX_VALUE,
+                LatencyHistogram.highestEquivalentValue(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentiles() {
+
+        final var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(10_001, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertNear(5_000_000, histogram.getValueAtPercentile(50));
+        assertNear(9_900_000, histogram.getValueAtPercentile(99));
+        assertNear(9_999_000, histogram.getValueAtPercentile(99.99));
+        assertNear(10_000_000, histogram.getMaxValue());
+    }
+
+    @Test
+    public void snapshot() {
+
+        final var histogram1 = new LatencyHistogram();
+        final var histogram2 = new LatencyHistogram();
+        final var snapshot = new LatencyHistogram();
+        final var previous = new LatencyHistogram();
+
+        histogram1.record(10);
+        histogram2.record(20);
+        histogram2.record(30);
+
+        histogram1.copyTo(snapshot);
+        snapshot.add(histogram2);
+        assertEquals(3, snapshot.getTotalCount());
+        assertEquals(30, snapshot.getMaxValue());
+
+        histogram1.copyTo(previous);
+        histogram1.record(40);
+        histogram1.copyTo(snapshot);
+        snapshot.subtract(previous);
+        assertEquals(1, snapshot.getTotalCount());
+        assertEquals(40, snapshot.getValueAtPercentile(50));
+
+        histogram1.reset();
+        assertEquals(0, histogram1.getTotalCount());
+    }
+
+    @Test
+    public void stages() {
+
+        final var ringBuffer = new LongRingBuffer(new Disruptor(), 2);
+        final var main = new StageLatencyRecorder("main", ringBuffer, null);
+        final var service = new StageLatencyRecorder("service", ringBuffer, main);
+
+        main.record(5, 100, 110);
+        service.record(5, 100, 125);
+
+        assertEquals(10, main.getIngress().getMaxValue());
+        assertEquals(0, main.getStage().getTotalCount());
+        assertEquals(25, service.getIngress().getMaxValue());
+        assertEquals(15, service.getStage().getMaxValue());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 32);
+    }
+}
@@ -0,0 +1,66 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class LongRingBufferTest {
+
+    @Test
+    public void longs() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = a.newLongRingBuffer(3);
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var sender = new LongSender(a, processor1, ringBuffer);
+
+        sender.send(100);
+        sender.send(new long[]{101, 102, 103, 104, 105});
+        assertEquals(6, processor2.claim());
+        assertEquals(100, ringBuffer.get(0));
+        assertEquals(105, ringBuffer.get(5));
+        processor2.publish(6);
+
+        sender.send(new long[]{0, 106, 107, 108, 109, 0}, 1, 4);
+        assertEquals(4, processor2.claim());
+        final var values = new long[6];
+        ringBuffer.get(6, values, 1, 4);
+        assertArrayEquals(new long[]{0, 106, 107, 108, 109, 0}, values);
+        assertEquals(108, ringBuffer.get(0));
+        processor2.publish(10);
+    }
+
+    @Test
+    public void longPairs() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = a.newLongPairRingBuffer(2);
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var sender = new LongPairSender(a, processor1, ringBuffer);
+
+        sender.send(1, 10);
+        sender.send(2, 20);
+        sender.send(3, 30);
+        assertEquals(3, processor2.claim());
+        assertEquals(3, ringBuffer.getFirst(2));
+        assertEquals(30, ringBuffer.getSecond(2));
+        processor2.publish(3);
+
+        sender.send(new long[]{4, 40, 5, 50});
+        assertEquals(2, processor2.claim());
+        final var pairs = new long[4];
+        ringBuffer.get(3, pairs, 0, 2);
+        assertArrayEquals(new long[]{4, 40, 5, 50}, pairs);
+        assertEquals(5, ringBuffer.getFirst(0));
+        processor2.publish(5);
+    }
+}
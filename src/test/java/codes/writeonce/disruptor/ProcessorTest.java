@@ -2,9 +2,20 @@ package codes.writeonce.disruptor;
 
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static java.lang.Long.MAX_VALUE;
 import static java.lang.Long.MIN_VALUE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ProcessorTest {
@@ -35,6 +46,30 @@ public class ProcessorTest {
                 new Processor(new Barrier(-2, a), new Barrier[]{new Barrier(-1, a), new Barrier(0, a)}, t).claim());
     }
 
+    @Test
+    public void gatingSequenceCache() {
+
+        final var a = new Disruptor();
+        final var t = Thread.currentThread();
+        final var barriers = new Barrier[]{new Barrier(0, a), new Barrier(0, a), new Barrier(0, a)};
+        final var processor = new Processor(new Barrier(0, a), barriers, t);
+
+        barriers[0].sequence.set(5);
+        barriers[2].sequence.set(7);
+        assertEquals(0, processor.claim());
+        barriers[1].sequence.set(3);
+        assertEquals(3, processor.claim());
+        barriers[1].sequence.set(10);
+        assertEquals(2, processor.claim());
+        barriers[0].sequence.set(8);
+        assertEquals(2, processor.claim());
+        barriers[2].sequence.set(12);
+        assertEquals(1, processor.claim());
+        assertEquals(0, processor.claim());
+        barriers[0].sequence.set(12);
+        assertEquals(2, processor.claim());
+    }
+
     @Test
     public void rignBuffer() {
 
@@ -186,4 +221,469 @@ public class ProcessorTest {
             // empty
         }
     }
+
+    @Test
+    public void waitStrategy() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = new RingBuffer<>(a, 10, () -> "");
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var barrier3 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newProcessor(t, BusySpinWaitStrategy.INSTANCE, barrier1, barrier2, barrier3);
+        final var processor2 = ringBuffer.newProcessor(t, BusySpinWaitStrategy.INSTANCE, barrier2, barrier1);
+        final var processor3 = ringBuffer.newProcessor(t, new SpinParkWaitStrategy(10), barrier3, barrier1);
+
+        assertTrue(barrier1.parking);
+        assertFalse(barrier2.parking);
+        assertFalse(barrier3.parking);
+
+        assertEquals(0, processor2.claimBlocking());
+        assertNull(barrier1.waitListHead.get());
+        processor2.idle();
+
+        assertEquals(0, processor3.claimBlocking());
+        assertNotNull(barrier1.waitListHead.get());
+
+        processor1.publish(1);
+        assertNull(barrier1.waitListHead.get());
+        assertEquals(1, processor2.claimBlocking());
+        assertEquals(1, processor3.claimBlocking());
+    }
+
+    @Test
+    public void ringBuffer() {
+
+        final var a = new Disruptor();
+        final var counter = new AtomicLong();
+        final var ringBuffer = a.newRingBuffer(2, () -> new AtomicLong(counter.getAndIncrement()));
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i & 3, ringBuffer.get(i).get());
+        }
+        assertEquals(-1 & 3, ringBuffer.get(-1).get());
+
+        for (final var capacityBits : new int[]{-1, 31}) {
+            try {
+                new RingBuffer<>(a, capacityBits, Object::new);
+                fail();
+            } catch (IllegalArgumentException ignore) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void batchSend() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var slots = new Slots(Set.of());
+        final var ringBuffer = new RingBuffer<>(a, 3, () -> new EventHolder<String>(slots));
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var sender = new Sender<>(a, processor1, ringBuffer);
+
+        sender.send(1, new String[]{"a", "b", "c"});
+        assertEquals(3, processor2.claim());
+        assertEquals("a", ringBuffer.get(0).event);
+        assertEquals("c", ringBuffer.get(2).event);
+        processor2.publish(3);
+
+        sender.send(2, List.of("d", "e"));
+        sender.send(3, 3, (holder, index) -> holder.event = String.valueOf(index));
+        assertEquals(5, processor2.claim());
+        assertEquals("e", ringBuffer.get(4).event);
+        assertEquals(2, ringBuffer.get(4).incomingNanos);
+        assertEquals("0", ringBuffer.get(5).event);
+        assertEquals("2", ringBuffer.get(7).event);
+        assertEquals(3, ringBuffer.get(7).incomingNanos);
+        assertEquals(0, processor2.claim());
+    }
+
+    @Test
+    public void translators() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var slots = new Slots(Set.of());
+        final var ringBuffer = new RingBuffer<>(a, 3, () -> new EventHolder<String>(slots));
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var sender = new Sender<>(a, processor1, ringBuffer);
+
+        sender.send(1, (holder, arg0) -> holder.event = arg0, "a");
+        sender.send(2, (holder, arg0, arg1) -> holder.event = arg0 + arg1, "b", 1);
+        sender.send(3, (holder, arg0, arg1, arg2) -> holder.event = arg0 + arg1 + arg2, "c", 2, 'x');
+        sender.sendAll(4, (holder, arg0, arg1) -> holder.event = arg0 + arg1, new String[]{"d", "e"},
+                new Integer[]{3, 4});
+        assertEquals(5, processor2.claim());
+        assertEquals("a", ringBuffer.get(0).event);
+        assertEquals("b1", ringBuffer.get(1).event);
+        assertEquals("c2x", ringBuffer.get(2).event);
+        assertEquals(3, ringBuffer.get(2).incomingNanos);
+        assertEquals("d3", ringBuffer.get(3).event);
+        assertEquals("e4", ringBuffer.get(4).event);
+
+        try {
+            sender.sendAll(5, (holder, arg0, arg1) -> holder.event = arg0 + arg1, new String[]{"f"}, new Integer[0]);
+            fail();
+        } catch (IllegalArgumentException ignore) {
+            // expected
+        }
+
+        final var eventQueue = new EventQueue<String>(a, 2);
+        final var queueSender = new QueueSender<>(eventQueue, t);
+        queueSender.sendAll(6, (holder, arg0) -> holder.event = arg0, new String[]{"g", "h"});
+        assertEquals(2, eventQueue.available(4));
+        assertEquals("g", eventQueue.getEvent(0));
+        assertEquals("h", eventQueue.getEvent(1));
+        eventQueue.remove(2);
+        assertNull(eventQueue.get(0).event);
+    }
+
+    @Test
+    public void payload() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var key = new PayloadKey<StringBuilder>(StringBuilder::new, e -> e.setLength(0));
+        final var slots = new Slots(Set.of(key), true);
+        final var slot = slots.slot(key);
+        final var ringBuffer = new RingBuffer<>(a, 0, () -> new EventHolder<CharSequence>(slots));
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var sender = new Sender<>(a, processor1, ringBuffer);
+        final var entry = new DisruptorEntry<CharSequence>(slots);
+        final var payload = slot.get(entry.slots);
+
+        sender.send(1, slot, (event, prefix, suffix) -> event.append(prefix).append(suffix), "a", "b");
+        assertEquals(1, processor2.claim());
+        final var holder = ringBuffer.get(0);
+        assertSame(slot.get(holder.slots), holder.event);
+        assertEquals("ab", holder.event.toString());
+
+        // moved to a queue1 entry as the main worker does, and the entry's own payload to the holder
+        entry.event = holder.event;
+        final var values = entry.slots;
+        entry.slots = holder.slots;
+        holder.slots = values;
+        holder.clean();
+        processor2.publish(1);
+
+        entry.clean(slots);
+        assertNull(entry.event);
+        assertEquals("", slot.get(entry.slots).toString());
+
+        sender.send(2, slot, (event, prefix, suffix) -> event.append(prefix).append(suffix), "c", "d");
+        assertEquals(1, processor2.claim());
+        assertSame(payload, ringBuffer.get(1).event);
+        assertEquals("cd", payload.toString());
+    }
+
+    @Test
+    public void payloadWithSlotAllocatesNothing() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var key = new PayloadKey<AtomicLong>(AtomicLong::new, e -> e.set(0));
+        final var key2 = new PayloadKey<AtomicLong>(AtomicLong::new, e -> e.set(0));
+        final var slots = new Slots(Set.of(key, key2), true);
+        final var slot = slots.slot(key);
+        final var slot2 = slots.slot(key2);
+        final var ringBuffer = new RingBuffer<>(a, 4, () -> new EventHolder<Object>(slots));
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var sender = new Sender<>(a, processor1, ringBuffer);
+        final var value = new AtomicLong(7);
+        final Long one = 1L;
+        final Long two = 2L;
+        final var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long sequence = 0;
+        long allocated = 0;
+        for (int round = 0; round < 2; round++) {
+            // the first round links the call sites
+            final var start = threadBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 10_000; i++) {
+                sender.send(i, slot, (event, x, y) -> event.set(x + y), one, two, slot2, value);
+                processor2.claim();
+                processor2.publish(++sequence);
+            }
+            allocated = threadBean.getCurrentThreadAllocatedBytes() - start;
+        }
+
+        // a capturing writer would take some 30 bytes per event
+        assertTrue("Allocated " + allocated + " bytes", allocated < 10_000);
+        final var holder = ringBuffer.get(sequence - 1);
+        assertEquals(3, slot.get(holder.slots).get());
+        assertSame(value, slot2.get(holder.slots));
+    }
+
+    @Test
+    public void spill() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var slots = new Slots(Set.of());
+        final var ringBuffer = new RingBuffer<>(a, 1, () -> new EventHolder<String>(slots));
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+        final var spillBuffer = new SpillBuffer<String>(2, slots, t);
+        final var sender = new Sender<>(a, processor1, ringBuffer, spillBuffer);
+
+        sender.send(1, "a");
+        sender.send(1, "b");
+        sender.send(1, "c");
+        assertEquals(1, spillBuffer.getDepth());
+        assertEquals(2, spillBuffer.limit(0));
+        assertNull(spillBuffer.peek(0));
+        assertEquals(2, processor2.claim());
+        processor2.publish(2);
+
+        // there is room in the ring again, but "c" is still spilled
+        sender.send(1, "d");
+        assertEquals(2, spillBuffer.getDepth());
+        assertEquals(0, spillBuffer.limit(2));
+        for (final var expected : List.of("c", "d")) {
+            final var holder = spillBuffer.peek(2);
+            assertNotNull(holder);
+            assertEquals(expected, holder.event);
+            holder.clean();
+            spillBuffer.remove();
+        }
+        assertTrue(spillBuffer.isEmpty());
+        assertEquals(MAX_VALUE, spillBuffer.limit(2));
+
+        sender.send(1, "e");
+        assertEquals(1, processor2.claim());
+        assertEquals("e", ringBuffer.get(2).event);
+
+        sender.send(1, "f");
+        sender.send(1, new String[]{"g", "h", "i", "j"});
+        assertEquals(4, spillBuffer.getDepth());
+        try {
+            sender.send(1, "k");
+            fail();
+        } catch (RejectedExecutionException ignore) {
+            // expected
+        }
+        assertEquals(1, spillBuffer.getRejectedCount());
+        assertEquals(6, spillBuffer.getSpilledCount());
+        assertEquals(1, spillBuffer.limit(3));
+    }
+
+    @Test
+    public void eventQueue() {
+
+        final var a = new Disruptor();
+        final var queue = new EventQueue<String>(a, 2);
+        final var counter = new AtomicLong();
+
+        for (int round = 0; round < 3; round++) {
+            assertEquals(0, queue.available(4));
+            assertTrue(queue.offer(0, "a", null));
+            assertTrue(queue.offer(5, "b", counter));
+            assertTrue(queue.offer(0, "c", null));
+            assertEquals(2, queue.available(2));
+            assertEquals(3, queue.available(4));
+            assertEquals("a", queue.getEvent(0));
+            assertSame(counter, queue.getCounter(1));
+            assertEquals(5, queue.getIncomingNanos(1));
+            queue.remove(1);
+            assertEquals("b", queue.getEvent(0));
+            assertTrue(queue.offer(0, "d", null));
+            assertTrue(queue.offer(0, "e", null));
+            assertFalse(queue.offer(0, "f", null));
+            assertEquals(4, queue.size());
+            assertEquals(4, queue.available(4));
+            assertEquals("e", queue.getEvent(3));
+            queue.remove(4);
+            assertEquals(0, queue.size());
+        }
+
+        // sent from the main thread, which would never take them
+        final var sender = new QueueSender<>(queue, new DisruptorThread(a, r -> Thread.currentThread()));
+        for (int i = 0; i < 4; i++) {
+            sender.send(0, "g");
+        }
+        try {
+            sender.send(0, "h");
+            fail();
+        } catch (RejectedExecutionException ignore) {
+            // expected
+        }
+        assertEquals(4, queue.size());
+
+        // sent from another thread once nothing takes them any more
+        final var sender2 = new QueueSender<>(queue, new DisruptorThread(a, Thread::new));
+        a.terminate();
+        try {
+            sender2.send(0, "h");
+            fail();
+        } catch (RejectedExecutionException ignore) {
+            // expected
+        }
+    }
+
+    @Test
+    public void postMultiProcessorScan() throws Exception {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = new LongRingBuffer(a, 5);
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newMultiProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newPostMultiProcessor(t, barrier2, barrier1);
+
+        long sequence = 0;
+        for (int round = 0; round < 3; round++) {
+            final var lo = processor1.claim(27);
+            assertEquals(sequence, lo);
+            // out of order, leaving a hole in the middle of a stride
+            processor1.publish(lo + 20, lo + 26);
+            processor1.publish(lo, lo + 10);
+            processor1.publish(lo + 12, lo + 18);
+            assertEquals(11, processor2.claim());
+            assertEquals(0, processor2.claim());
+            processor1.publish(lo + 19);
+            processor1.publish(lo + 11);
+            assertEquals(16, processor2.claim());
+            sequence += 27;
+            processor2.publish(sequence);
+        }
+        assertEquals(0, processor2.claim());
+    }
+
+    @Test
+    public void workerPool() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = new RingBuffer<>(a, 3, () -> "");
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var pool = ringBuffer.newWorkerPool(new DisruptorThread[]{t, t}, barrier2, barrier1);
+        final var processor1 = pool.getProcessor(0);
+        final var processor2 = pool.getProcessor(1);
+
+        assertEquals(2, pool.size());
+        assertEquals(0, processor1.getSequence());
+        assertEquals(1, processor2.getSequence());
+        assertEquals(0, processor1.claim());
+
+        barrier1.sequence.set(1);
+        assertEquals(1, processor1.claim());
+        assertEquals(0, processor2.claimBlocking());
+        assertNotNull(barrier1.waitListHead.get());
+
+        processor1.publish();
+        assertEquals(2, processor1.getSequence());
+        assertEquals(1, barrier2.sequence.get());
+
+        barrier1.sequence.set(3);
+        barrier1.wakeup();
+        assertNull(barrier1.waitListHead.get());
+        assertEquals(1, processor2.claimBlocking());
+        assertEquals(1, processor1.claim());
+        processor1.publish();
+        assertEquals(3, processor1.getSequence());
+        assertEquals(1, barrier2.sequence.get());
+        processor2.publish();
+        assertEquals(4, processor2.getSequence());
+        assertEquals(3, barrier2.sequence.get());
+        assertEquals(0, processor1.claim());
+    }
+
+    @Test
+    public void singleProcessor() throws Exception {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = new RingBuffer<>(a, 10, () -> "");
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newSingleProcessor(barrier1, barrier2);
+        final var processor2 = ringBuffer.newProcessor(t, barrier2, barrier1);
+
+        assertEquals(0, processor1.claim(1000));
+        assertEquals(1000, processor1.claim(24));
+        try {
+            processor1.claim(1);
+            fail();
+        } catch (InsufficientCapacityException ignore) {
+            // empty
+        }
+        assertEquals(0, processor2.claim());
+
+        processor1.publish(0);
+        assertEquals(1, processor2.claim());
+        processor1.publish(1, 1023);
+        assertEquals(1023, processor2.claim());
+        processor2.publish(1);
+
+        assertEquals(1024, processor1.claim(1));
+        try {
+            processor1.claimBlocking(1);
+            fail();
+        } catch (InsufficientCapacityException ignore) {
+            // empty
+        }
+        assertNotNull(barrier2.waitListHead.get());
+        processor2.publish(1024);
+        assertNull(barrier2.waitListHead.get());
+        assertEquals(1025, processor1.claimBlocking(1023));
+    }
+
+    @Test
+    public void topology() {
+
+        final var a = new Disruptor();
+        final var ringBuffer = a.newRingBuffer(3, Object::new);
+        final var topology = new Topology(ringBuffer);
+        final var head = topology.head("head", a.newThread(Thread::new));
+        final var b = topology.stage("b", a.newThread(Thread::new));
+        final var c = topology.stage("c", a.newThread(Thread::new), head, b);
+        final var d = topology.stage("d", a.newThread(Thread::new), b, c);
+        topology.stage("e", a.newThread(Thread::new), head);
+        topology.build();
+
+        assertEquals("""
+                head (head) <- d, e
+                b <- head
+                c <- b [implied: head]
+                d <- c [implied: b]
+                e <- head
+                """, topology.dump());
+
+        head.getBarrier().sequence.set(4);
+        assertEquals(4, b.getProcessor().claim());
+        assertEquals(0, c.getProcessor().claim());
+        b.getBarrier().sequence.set(4);
+        assertEquals(4, c.getProcessor().claim());
+        assertEquals(0, d.getProcessor().claim());
+
+        final var cyclic = new Topology(ringBuffer);
+        cyclic.head("head", a.newThread(Thread::new));
+        final var x = cyclic.stage("x", a.newThread(Thread::new));
+        final var y = cyclic.stage("y", a.newThread(Thread::new), x);
+        x.after(y);
+        try {
+            cyclic.build();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Cycle through stages: x, y", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.StructLayout;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SegmentRingBufferTest {
+
+    @Test
+    public void layout() {
+
+        final var a = new Disruptor();
+        final var ringBuffer = a.newSegmentRingBuffer(4, Quote.LAYOUT);
+
+        assertEquals(24, ringBuffer.entrySize());
+        assertEquals(16 * 24, ringBuffer.segment().byteSize());
+        assertEquals(0, ringBuffer.segment().address() % 64);
+        assertEquals(24, ringBuffer.offset(17));
+    }
+
+    @Test
+    public void sequencing() {
+
+        final var a = new Disruptor();
+        final var t = new DisruptorThread(a, Thread::new);
+        final var ringBuffer = a.newSegmentRingBuffer(4, Quote.LAYOUT);
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processor1 = ringBuffer.newProcessor(t, barrier1, barrier2);
+        final var processor2 = ringBuffer.newProcessor(t, barrier2, barrier1);
+
+        final var producer = new Quote();
+        final var consumer = new Quote();
+
+        long sequence = 0;
+        var available = ringBuffer.capacity();
+
+        for (int round = 0; round < 3; round++) {
+            final var start = sequence;
+            while (available != 0) {
+                assertSame(producer, ringBuffer.get(sequence, producer));
+                producer.id(sequence);
+                producer.price(sequence * 10);
+                producer.venue((int) sequence);
+                sequence++;
+                available--;
+            }
+            processor1.publish(sequence);
+
+            assertEquals(16, processor2.claim());
+            for (var i = start; i < sequence; i++) {
+                ringBuffer.get(i, consumer);
+                assertEquals(i, consumer.id());
+                assertEquals(i * 10, consumer.price());
+                assertEquals((int) i, consumer.venue());
+            }
+            processor2.publish(sequence);
+
+            available += processor1.claim();
+        }
+    }
+
+    private static final class Quote extends SegmentFlyweight {
+
+        static final StructLayout LAYOUT = MemoryLayout.structLayout(
+                JAVA_LONG.withName("id"),
+                JAVA_LONG.withName("price"),
+                JAVA_INT.withName("venue")
+        );
+
+        private static final long ID = LAYOUT.byteOffset(groupElement("id"));
+
+        private static final long PRICE = LAYOUT.byteOffset(groupElement("price"));
+
+        private static final long VENUE = LAYOUT.byteOffset(groupElement("venue"));
+
+        long id() {
+            return segment.get(JAVA_LONG, offset + ID);
+        }
+
+        void id(long value) {
+            segment.set(JAVA_LONG, offset + ID, value);
+        }
+
+        long price() {
+            return segment.get(JAVA_LONG, offset + PRICE);
+        }
+
+        void price(long value) {
+            segment.set(JAVA_LONG, offset + PRICE, value);
+        }
+
+        int venue() {
+            return segment.get(JAVA_INT, offset + VENUE);
+        }
+
+        void venue(int value) {
+            segment.set(JAVA_INT, offset + VENUE, value);
+        }
+    }
+}
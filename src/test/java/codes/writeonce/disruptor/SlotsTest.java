@@ -0,0 +1,73 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SlotsTest {
+
+    @Test
+    public void array() {
+        check(false, 3, 3);
+    }
+
+    @Test
+    public void compiled() {
+        check(true, 1, 0);
+    }
+
+    private static void check(boolean compiled, int cleansA, int cleansB) {
+
+        final var keyA = new CountingKey();
+        final var keyB = new CountingKey();
+        final var slots = new Slots(new LinkedHashSet<>(List.of(keyA, keyB)), compiled);
+        final var slotA = slots.slot(keyA);
+        final var slotB = slots.slot(keyB);
+
+        final var values = slots.init();
+        final var other = slots.init();
+        assertEquals(2, keyA.inits.get());
+        assertEquals("init", slotA.get(values));
+        assertEquals("init", slotB.get(values));
+
+        slotA.set(values, "a");
+        assertEquals("a", slotA.get(values));
+        assertEquals("init", slotB.get(values));
+        assertEquals("init", slotA.get(other));
+
+        slots.clean(values);
+        assertNull(slotA.get(values));
+        assertEquals(1, keyA.cleans.get());
+
+        // nothing set since the last clean
+        slots.clean(values);
+        slots.clean(other);
+        assertEquals(cleansA, keyA.cleans.get());
+        assertEquals(cleansB, keyB.cleans.get());
+    }
+
+    private static class CountingKey implements SlotKey<String> {
+
+        final AtomicInteger inits = new AtomicInteger();
+
+        final AtomicInteger cleans = new AtomicInteger();
+
+        @Override
+        public String init() {
+            inits.incrementAndGet();
+            return "init";
+        }
+
+        @Override
+        public String clean(@Nonnull String value) {
+            cleans.incrementAndGet();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void expiry() {
+
+        final var wheel = new TimingWheel<Long>(Thread.currentThread(), 1, 0);
+        final var random = new Random(1);
+        final var deadlines = new ArrayList<Long>();
+        final var timers = new ArrayList<TimingWheel.Timer<Long>>();
+
+        final var unique = new HashSet<Long>();
+        for (int i = 0; i < 10000; i++) {
+            final var deadline = 1 + (random.nextBoolean() ? random.nextInt(100000) : random.nextLong(1L << 40));
+            if (unique.add(deadline)) {
+                deadlines.add(deadline);
+                timers.add(wheel.schedule(deadline, deadline));
+            }
+        }
+        final var cancelled = new HashSet<Long>();
+        for (int i = 0; i < timers.size(); i += 3) {
+            assertTrue(timers.get(i).cancel());
+            assertFalse(timers.get(i).cancel());
+            cancelled.add(deadlines.get(i));
+        }
+
+        long nanos = 0;
+        var fired = 0;
+        while (!wheel.isEmpty()) {
+            final var next = wheel.nanosToNextExpiry(nanos);
+            assertTrue(next > 0);
+            final var previous = nanos;
+            nanos += random.nextBoolean() ? next : Math.max(1, next / 2);
+            wheel.advance(nanos);
+            for (var event = wheel.nextExpired(); event != null; event = wheel.nextExpired()) {
+                assertTrue(event > previous);
+                assertTrue(event <= nanos);
+                assertFalse(cancelled.contains(event));
+                fired++;
+            }
+        }
+        assertEquals(deadlines.size() - cancelled.size(), fired);
+        assertEquals(Long.MAX_VALUE, wheel.nanosToNextExpiry(nanos));
+    }
+
+    @Test
+    public void otherThreads() throws Exception {
+
+        final var wheel = new TimingWheel<String>(Thread.currentThread(), 10, 0);
+        final var timers = new ArrayList<TimingWheel.Timer<String>>();
+
+        final var thread = new Thread(() -> {
+            timers.add(wheel.schedule(25, "a"));
+            timers.add(wheel.schedule(5, "b"));
+            timers.add(wheel.schedule(15, "c"));
+            assertTrue(timers.get(2).cancel());
+        });
+        thread.start();
+        thread.join();
+
+        assertFalse(wheel.isEmpty());
+        assertEquals(0, wheel.nanosToNextExpiry(0));
+        wheel.advance(9);
+        assertNull(wheel.nextExpired());
+        assertEquals(1, wheel.nanosToNextExpiry(9));
+        wheel.advance(10);
+        assertEquals("b", wheel.nextExpired());
+        assertNull(wheel.nextExpired());
+        wheel.advance(30);
+        assertEquals("a", wheel.nextExpired());
+        assertFalse(timers.get(0).cancel());
+        assertTrue(wheel.isEmpty());
+
+        // due at once
+        wheel.schedule(0, "d");
+        assertEquals(0, wheel.nanosToNextExpiry(30));
+        assertEquals("d", wheel.nextExpired());
+    }
+}
@@ -0,0 +1,209 @@
+package codes.writeonce.disruptor;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Every side parks on a tiny ring, so nearly every publish races a waiter registering: a lost wake-up hangs a thread.
+ */
+public class WaitClientTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    public void pingPong() throws Exception {
+
+        final var count = 200_000;
+        final var a = new Disruptor();
+        final var ringBuffer = new LongRingBuffer(a, 1);
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processors = new Processor[2];
+        final var sums = new long[1];
+
+        final var producer = newThread(() -> {
+            final var processor = processors[0];
+            long available = ringBuffer.capacity();
+            long sequence = 0;
+            while (sequence < count) {
+                if (available == 0) {
+                    final var n = processor.claimBlocking();
+                    if (n == 0) {
+                        processor.idle();
+                        continue;
+                    }
+                    available += n;
+                }
+                ringBuffer.set(sequence, sequence);
+                available--;
+                processor.publish(++sequence);
+            }
+        });
+
+        final var consumer = newThread(() -> {
+            final var processor = processors[1];
+            long sequence = 0;
+            long sum = 0;
+            while (sequence < count) {
+                var n = processor.claimBlocking();
+                if (n == 0) {
+                    processor.idle();
+                    continue;
+                }
+                do {
+                    sum += ringBuffer.get(sequence++);
+                } while (--n != 0);
+                processor.publish(sequence);
+            }
+            sums[0] = sum;
+        });
+
+        processors[0] = new Processor(barrier1, new Barrier[]{barrier2}, producer);
+        processors[1] = new Processor(barrier2, new Barrier[]{barrier1}, consumer);
+
+        producer.start();
+        consumer.start();
+        producer.join(TIMEOUT_MILLIS);
+        consumer.join(TIMEOUT_MILLIS);
+
+        assertFalse(producer.isAlive());
+        assertFalse(consumer.isAlive());
+        assertEquals((long) count * (count - 1) / 2, sums[0]);
+    }
+
+    @Test
+    public void multiProducer() throws Exception {
+
+        final var producerCount = 3;
+        final var count = 50_000;
+        final var a = new Disruptor();
+        final var ringBuffer = new LongRingBuffer(a, 2);
+        final var barrier1 = ringBuffer.newMultiBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var sender = new LongSender(a, ringBuffer.newMultiProcessor(barrier1, barrier2), ringBuffer);
+        final var processors = new PostMultiProcessor[1];
+        final var sums = new long[1];
+
+        final var producers = new Thread[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            producers[i] = newThread(() -> {
+                for (int j = 1; j <= count; j++) {
+                    sender.send(j);
+                }
+            });
+        }
+
+        final var consumer = newThread(() -> {
+            final var processor = processors[0];
+            final var total = (long) producerCount * count;
+            long sequence = 0;
+            long sum = 0;
+            while (sequence < total) {
+                var n = processor.claimBlocking();
+                if (n == 0) {
+                    processor.idle();
+                    continue;
+                }
+                do {
+                    sum += ringBuffer.get(sequence++);
+                } while (--n != 0);
+                processor.publish(sequence);
+            }
+            sums[0] = sum;
+        });
+
+        processors[0] = new PostMultiProcessor(barrier2, barrier1, consumer);
+
+        consumer.start();
+        for (final var producer : producers) {
+            producer.start();
+        }
+        for (final var producer : producers) {
+            producer.join(TIMEOUT_MILLIS);
+            assertFalse(producer.isAlive());
+        }
+        consumer.join(TIMEOUT_MILLIS);
+
+        assertFalse(consumer.isAlive());
+        assertEquals((long) producerCount * count * (count + 1) / 2, sums[0]);
+    }
+
+    @Test
+    public void workerPool() throws Exception {
+
+        final var count = 100_000;
+        final var a = new Disruptor();
+        final var ringBuffer = new LongRingBuffer(a, 2);
+        final var barrier1 = ringBuffer.newBarrier(0);
+        final var barrier2 = ringBuffer.newBarrier(0);
+        final var processors = new Processor[1];
+        final var sum = new AtomicLong();
+
+        final var producer = newThread(() -> {
+            final var processor = processors[0];
+            long available = ringBuffer.capacity();
+            long sequence = 0;
+            while (sequence < count) {
+                if (available == 0) {
+                    final var n = processor.claimBlocking();
+                    if (n == 0) {
+                        processor.idle();
+                        continue;
+                    }
+                    available += n;
+                }
+                ringBuffer.set(sequence, sequence);
+                available--;
+                processor.publish(++sequence);
+            }
+        });
+
+        final var workers = new Thread[3];
+        final var workProcessors = new WorkProcessor[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            final var index = i;
+            workers[i] = newThread(() -> {
+                final var processor = workProcessors[index];
+                while (processor.getSequence() < count) {
+                    if (processor.claimBlocking() == 0) {
+                        processor.idle();
+                        continue;
+                    }
+                    sum.addAndGet(ringBuffer.get(processor.getSequence()));
+                    processor.publish();
+                }
+            });
+        }
+
+        processors[0] = new Processor(barrier1, new Barrier[]{barrier2}, producer);
+        final var pool = new WorkerPool(barrier2, new Barrier[]{barrier1}, workers, ParkingWaitStrategy.INSTANCE);
+        for (int i = 0; i < workers.length; i++) {
+            workProcessors[i] = pool.getProcessor(i);
+        }
+
+        producer.start();
+        for (final var worker : workers) {
+            worker.start();
+        }
+        producer.join(TIMEOUT_MILLIS);
+        assertFalse(producer.isAlive());
+        for (final var worker : workers) {
+            worker.join(TIMEOUT_MILLIS);
+            assertFalse(worker.isAlive());
+        }
+
+        assertEquals(count, barrier2.sequence.get());
+        assertEquals((long) count * (count - 1) / 2, sum.get());
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        final var thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    }
+}